@@ -1,6 +1,6 @@
 package cn.tuyucheng.taketoday.commonissues;
 
-class SynchronizedCounter {
+public class SynchronizedCounter {
     private int counter = 0;
 
     public synchronized void increment() {
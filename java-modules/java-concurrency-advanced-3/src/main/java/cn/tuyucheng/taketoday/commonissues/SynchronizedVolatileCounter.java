@@ -1,6 +1,6 @@
 package cn.tuyucheng.taketoday.commonissues;
 
-class SynchronizedVolatileCounter {
+public class SynchronizedVolatileCounter {
     private volatile int counter = 0;
 
     public synchronized void increment() {
@@ -0,0 +1,101 @@
+package cn.tuyucheng.taketoday.concurrent.callable;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.mathutils.MathUtils;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Computes the factorials of many numbers at once. The distinct numbers are sorted and split into chunks; every factor
+ * up to the largest number is multiplied exactly once, and each result reuses the one before it:
+ * <ol>
+ *     <li>in parallel, each chunk multiplies the factors of its own range;</li>
+ *     <li>the chunk products are chained to get the factorial each chunk starts from;</li>
+ *     <li>in parallel, each chunk walks its numbers, multiplying the running product by the factors since the previous
+ *     one.</li>
+ * </ol>
+ */
+public class BatchFactorialService {
+    private final ExecutorService executor;
+    private final int chunks;
+
+    public BatchFactorialService(ExecutorService executor) {
+        this(executor, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchFactorialService(ExecutorService executor, int chunks) {
+        if (chunks < 1) {
+            throw new IllegalArgumentException("Chunks must be positive: " + chunks);
+        }
+        this.executor = executor;
+        this.chunks = chunks;
+    }
+
+    public Map<Integer, BigInteger> factorials(Collection<Integer> numbers) throws InterruptedException, ExecutionException {
+        TreeSet<Integer> distinct = new TreeSet<>(numbers);
+        if (!distinct.isEmpty() && distinct.first() < 0) {
+            throw new IllegalArgumentException("Number must be positive: " + distinct.first());
+        }
+        List<List<Integer>> parts = split(new ArrayList<>(distinct));
+
+        List<Callable<BigInteger>> rangeProducts = new ArrayList<>();
+        int previous = 1;
+        for (List<Integer> part : parts) {
+            int from = previous + 1;
+            int to = part.get(part.size() - 1);
+            rangeProducts.add(() -> MathUtils.product(from, to));
+            previous = Math.max(previous, to);
+        }
+        List<Future<BigInteger>> products = executor.invokeAll(rangeProducts);
+
+        List<Callable<Map<Integer, BigInteger>>> walks = new ArrayList<>();
+        BigInteger base = BigInteger.ONE;
+        previous = 1;
+        for (int i = 0; i < parts.size(); i++) {
+            List<Integer> part = parts.get(i);
+            BigInteger start = base;
+            int startAfter = previous;
+            walks.add(() -> walk(part, start, startAfter));
+            base = base.multiply(products.get(i).get());
+            previous = Math.max(previous, part.get(part.size() - 1));
+        }
+
+        Map<Integer, BigInteger> results = new HashMap<>();
+        for (Future<Map<Integer, BigInteger>> walk : executor.invokeAll(walks)) {
+            results.putAll(walk.get());
+        }
+        return results;
+    }
+
+    private static Map<Integer, BigInteger> walk(List<Integer> numbers, BigInteger start, int startAfter) {
+        Map<Integer, BigInteger> results = new HashMap<>();
+        BigInteger running = start;
+        int previous = startAfter;
+        for (int number : numbers) {
+            if (number > previous) {
+                running = running.multiply(MathUtils.product(previous + 1, number));
+                previous = number;
+            }
+            results.put(number, running);
+        }
+        return results;
+    }
+
+    private List<List<Integer>> split(List<Integer> sorted) {
+        List<List<Integer>> parts = new ArrayList<>();
+        int size = (sorted.size() + chunks - 1) / chunks;
+        for (int i = 0; i < sorted.size(); i += size) {
+            parts.add(sorted.subList(i, Math.min(i + size, sorted.size())));
+        }
+        return parts;
+    }
+}
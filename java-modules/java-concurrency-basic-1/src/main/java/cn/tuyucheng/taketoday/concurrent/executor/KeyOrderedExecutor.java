@@ -0,0 +1,122 @@
+package cn.tuyucheng.taketoday.concurrent.executor;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs tasks with the same key one after another, in submission order, and tasks with different keys in parallel on
+ * the delegate. A key only has a queue while one of its tasks is running or waiting; the queue is created by the first
+ * task and removed when the last one finishes, so idle keys cost nothing. Each task is handed to the delegate on its
+ * own, so busy keys do not hold on to a pool thread.
+ * <p>
+ * If the delegate rejects the task of an {@link #execute(Object, Runnable)} call, only that call fails; the tasks other
+ * callers queued behind it still run. A queued task that is rejected later, usually on a pool thread where nobody could
+ * catch the exception, goes to the {@link RejectedTaskHandler}, and the key carries on with its next task.
+ */
+public class KeyOrderedExecutor implements Executor {
+    /**
+     * Runs a rejected queued task on the thread that tried to hand it over, like
+     * {@link java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy}. The key is still serialized, so the order is kept.
+     */
+    public static final RejectedTaskHandler CALLER_RUNS = (key, task, e) -> task.run();
+
+    private final Executor delegate;
+    private final RejectedTaskHandler rejectedTaskHandler;
+    // tasks waiting behind the running one; only touched inside compute methods, which lock the key's bin
+    private final Map<Object, ArrayDeque<Runnable>> waiting = new ConcurrentHashMap<>();
+
+    public KeyOrderedExecutor(Executor delegate) {
+        this(delegate, CALLER_RUNS);
+    }
+
+    public KeyOrderedExecutor(Executor delegate, RejectedTaskHandler rejectedTaskHandler) {
+        this.delegate = delegate;
+        this.rejectedTaskHandler = rejectedTaskHandler;
+    }
+
+    /**
+     * Runs a task that is not ordered with respect to any other.
+     */
+    @Override
+    public void execute(Runnable task) {
+        delegate.execute(task);
+    }
+
+    /**
+     * @throws RejectedExecutionException if the delegate rejects the task; tasks queued behind it are not affected
+     */
+    public void execute(Object key, Runnable task) {
+        boolean[] first = new boolean[1];
+        waiting.compute(key, (k, queue) -> {
+            if (queue == null) {
+                first[0] = true;
+                return new ArrayDeque<>();
+            }
+            queue.add(task);
+            return queue;
+        });
+        if (first[0]) {
+            try {
+                delegate.execute(inOrder(key, task));
+            } catch (RejectedExecutionException e) {
+                runNext(key);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return the number of keys with a running or waiting task
+     */
+    public int getActiveKeyCount() {
+        return waiting.size();
+    }
+
+    private Runnable inOrder(Object key, Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } finally {
+                runNext(key);
+            }
+        };
+    }
+
+    private void runNext(Object key) {
+        Runnable next;
+        while ((next = pollNext(key)) != null) {
+            try {
+                delegate.execute(inOrder(key, next));
+                return;
+            } catch (RejectedExecutionException e) {
+                try {
+                    rejectedTaskHandler.rejected(key, next, e);
+                } catch (RuntimeException | Error handlerFailure) {
+                    // don't leave the key's other tasks stuck behind a failing handler
+                    runNext(key);
+                    throw handlerFailure;
+                }
+            }
+        }
+    }
+
+    private Runnable pollNext(Object key) {
+        Runnable[] next = new Runnable[1];
+        waiting.computeIfPresent(key, (k, queue) -> {
+            next[0] = queue.poll();
+            return next[0] == null ? null : queue;
+        });
+        return next[0];
+    }
+
+    /**
+     * Receives a queued task that the delegate rejected when its turn came.
+     */
+    @FunctionalInterface
+    public interface RejectedTaskHandler {
+        void rejected(Object key, Runnable task, RejectedExecutionException e);
+    }
+}
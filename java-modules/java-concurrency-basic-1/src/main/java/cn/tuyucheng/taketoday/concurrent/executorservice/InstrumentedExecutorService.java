@@ -0,0 +1,272 @@
+package cn.tuyucheng.taketoday.concurrent.executorservice;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.LatencyHistogram;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.StripedLatencyRecorder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorates an executor to measure how long each task waits before it starts and how long it runs, and to count
+ * active, queued, completed and rejected tasks. Recording takes two {@link System#nanoTime()} calls and a write to one
+ * of a fixed number of lock-striped histograms, so it is cheap enough to leave on and its memory does not grow with the
+ * number of threads, even for a thread-per-task delegate. The numbers are read through {@link #snapshot()} or, once
+ * {@link #registerMBean(String) registered}, over JMX, where the attributes read within {@value #JMX_SNAPSHOT_MILLIS} ms
+ * share one snapshot.
+ * <p>
+ * The queued count is the number of tasks handed to the delegate that have neither started nor been returned by
+ * {@link #shutdownNow()}. A task the delegate drops without doing either stays counted: one thrown away by a
+ * {@link java.util.concurrent.ThreadPoolExecutor.DiscardPolicy} or
+ * {@link java.util.concurrent.ThreadPoolExecutor.DiscardOldestPolicy}, or one still queued in a
+ * {@link java.util.concurrent.ForkJoinPool} when {@code shutdownNow()} cancels it without returning it. With such
+ * delegates the queued count only grows over time and should be read as an upper bound.
+ */
+public class InstrumentedExecutorService extends AbstractExecutorService implements InstrumentedExecutorServiceMXBean {
+    private static final long JMX_SNAPSHOT_MILLIS = 1000;
+
+    private final ExecutorService delegate;
+
+    private final StripedLatencyRecorder queueWaitRecorder = new StripedLatencyRecorder();
+    private final StripedLatencyRecorder runTimeRecorder = new StripedLatencyRecorder();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram runTime = new LatencyHistogram();
+
+    private final LongAdder active = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private ObjectName objectName;
+    private volatile Snapshot jmxSnapshot;
+
+    public InstrumentedExecutorService(ExecutorService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        InstrumentedTask task = new InstrumentedTask(command);
+        queued.increment();
+        try {
+            delegate.execute(task);
+        } catch (RejectedExecutionException e) {
+            queued.decrement();
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    /**
+     * @return the tasks that never started, as they were passed to this executor
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> tasks = new ArrayList<>();
+        for (Runnable task : delegate.shutdownNow()) {
+            if (task instanceof InstrumentedTask) {
+                queued.decrement();
+                tasks.add(((InstrumentedTask) task).command);
+            } else {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    public synchronized Snapshot snapshot() {
+        queueWait.add(queueWaitRecorder.getIntervalHistogram());
+        runTime.add(runTimeRecorder.getIntervalHistogram());
+        LatencyHistogram queueWaitCopy = new LatencyHistogram();
+        queueWaitCopy.add(queueWait);
+        LatencyHistogram runTimeCopy = new LatencyHistogram();
+        runTimeCopy.add(runTime);
+        Snapshot snapshot = new Snapshot(active.sum(), queued.sum(), completed.sum(), rejected.sum(), queueWaitCopy, runTimeCopy);
+        jmxSnapshot = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * Registers this executor with the platform MBean server as
+     * {@code cn.tuyucheng.taketoday.concurrent:type=InstrumentedExecutorService,name=<name>}.
+     */
+    public synchronized ObjectName registerMBean(String name) throws JMException {
+        if (objectName != null) {
+            throw new IllegalStateException("Already registered as " + objectName);
+        }
+        ObjectName candidate = new ObjectName("cn.tuyucheng.taketoday.concurrent:type=InstrumentedExecutorService,name="
+          + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, candidate);
+        objectName = candidate;
+        return objectName;
+    }
+
+    public synchronized void unregisterMBean() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    @Override
+    public long getActiveCount() {
+        return jmxSnapshot().getActiveCount();
+    }
+
+    @Override
+    public long getQueuedCount() {
+        return jmxSnapshot().getQueuedCount();
+    }
+
+    @Override
+    public long getCompletedCount() {
+        return jmxSnapshot().getCompletedCount();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return jmxSnapshot().getRejectedCount();
+    }
+
+    @Override
+    public double getQueueWaitMean() {
+        return jmxSnapshot().getQueueWait().getMean();
+    }
+
+    @Override
+    public long getQueueWait99thPercentile() {
+        return jmxSnapshot().getQueueWait().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getQueueWaitMax() {
+        return jmxSnapshot().getQueueWait().getMaxValue();
+    }
+
+    @Override
+    public double getRunTimeMean() {
+        return jmxSnapshot().getRunTime().getMean();
+    }
+
+    @Override
+    public long getRunTime99thPercentile() {
+        return jmxSnapshot().getRunTime().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getRunTimeMax() {
+        return jmxSnapshot().getRunTime().getMaxValue();
+    }
+
+    /**
+     * A JMX client reads the attributes one by one; taking a snapshot for each would merge and copy the histograms ten
+     * times per scrape, and the counts would not match the latencies read next to them.
+     */
+    private Snapshot jmxSnapshot() {
+        Snapshot snapshot = jmxSnapshot;
+        if (snapshot != null && System.nanoTime() - snapshot.takenAt < TimeUnit.MILLISECONDS.toNanos(JMX_SNAPSHOT_MILLIS)) {
+            return snapshot;
+        }
+        return snapshot();
+    }
+
+    private final class InstrumentedTask implements Runnable {
+        private final Runnable command;
+        private final long enqueuedAt = System.nanoTime();
+
+        InstrumentedTask(Runnable command) {
+            this.command = command;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            queued.decrement();
+            active.increment();
+            queueWaitRecorder.record(start - enqueuedAt);
+            try {
+                command.run();
+            } finally {
+                runTimeRecorder.record(System.nanoTime() - start);
+                active.decrement();
+                completed.increment();
+            }
+        }
+    }
+
+    public static class Snapshot {
+        private final long activeCount;
+        private final long queuedCount;
+        private final long completedCount;
+        private final long rejectedCount;
+        private final LatencyHistogram queueWait;
+        private final LatencyHistogram runTime;
+        private final long takenAt = System.nanoTime();
+
+        Snapshot(long activeCount, long queuedCount, long completedCount, long rejectedCount, LatencyHistogram queueWait, LatencyHistogram runTime) {
+            this.activeCount = activeCount;
+            this.queuedCount = queuedCount;
+            this.completedCount = completedCount;
+            this.rejectedCount = rejectedCount;
+            this.queueWait = queueWait;
+            this.runTime = runTime;
+        }
+
+        public long getActiveCount() {
+            return activeCount;
+        }
+
+        public long getQueuedCount() {
+            return queuedCount;
+        }
+
+        public long getCompletedCount() {
+            return completedCount;
+        }
+
+        public long getRejectedCount() {
+            return rejectedCount;
+        }
+
+        public LatencyHistogram getQueueWait() {
+            return queueWait;
+        }
+
+        public LatencyHistogram getRunTime() {
+            return runTime;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{active=" + activeCount + ", queued=" + queuedCount + ", completed=" + completedCount
+              + ", rejected=" + rejectedCount + ", queueWait=[" + queueWait + "], runTime=[" + runTime + "]}";
+        }
+    }
+}
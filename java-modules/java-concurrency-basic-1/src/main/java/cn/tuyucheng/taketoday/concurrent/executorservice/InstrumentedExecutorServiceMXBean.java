@@ -0,0 +1,29 @@
+package cn.tuyucheng.taketoday.concurrent.executorservice;
+
+/**
+ * The JMX view of an {@link InstrumentedExecutorService}. Latencies are in nanoseconds and cover every task since the
+ * executor was created. All attributes, counts included, come from a snapshot that is reused for up to a second, so
+ * one scrape sees consistent values.
+ */
+public interface InstrumentedExecutorServiceMXBean {
+
+    long getActiveCount();
+
+    long getQueuedCount();
+
+    long getCompletedCount();
+
+    long getRejectedCount();
+
+    double getQueueWaitMean();
+
+    long getQueueWait99thPercentile();
+
+    long getQueueWaitMax();
+
+    double getRunTimeMean();
+
+    long getRunTime99thPercentile();
+
+    long getRunTimeMax();
+}
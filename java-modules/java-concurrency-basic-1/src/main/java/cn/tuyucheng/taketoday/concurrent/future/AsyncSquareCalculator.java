@@ -0,0 +1,59 @@
+package cn.tuyucheng.taketoday.concurrent.future;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * A non-blocking version of {@link SquareCalculator}: the one second delay is a scheduled hand-off rather than a
+ * sleeping pool thread, and every continuation runs on the given executor instead of on whichever thread completed
+ * the previous stage.
+ */
+public class AsyncSquareCalculator {
+    private static final Duration DELAY = Duration.ofSeconds(1);
+
+    private final Executor executor;
+    private final Executor delayed;
+
+    public AsyncSquareCalculator(Executor executor) {
+        this.executor = executor;
+        this.delayed = CompletableFuture.delayedExecutor(DELAY.toNanos(), TimeUnit.NANOSECONDS, executor);
+    }
+
+    public CompletableFuture<Integer> calculate(Integer input) {
+        return CompletableFuture.supplyAsync(() -> input * input, delayed);
+    }
+
+    /**
+     * @return a future that fails with a {@link java.util.concurrent.TimeoutException} if not done within the timeout
+     */
+    public CompletableFuture<Integer> calculate(Integer input, Duration timeout) {
+        return calculate(input).orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public CompletableFuture<Integer> calculateOrDefault(Integer input, Duration timeout, Integer defaultValue) {
+        return calculate(input).completeOnTimeout(defaultValue, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Squares the result of another stage once it is available.
+     */
+    public CompletableFuture<Integer> calculateAfter(CompletableFuture<Integer> input) {
+        return input.thenComposeAsync(this::calculate, executor);
+    }
+
+    /**
+     * Fans in all squares; the sum is taken by a continuation once the last one completes, so no thread waits.
+     */
+    public CompletableFuture<Long> sumOfSquares(Collection<Integer> inputs) {
+        List<CompletableFuture<Integer>> squares = inputs.stream()
+          .map(this::calculate)
+          .collect(Collectors.toList());
+        return CompletableFuture.allOf(squares.toArray(new CompletableFuture<?>[0]))
+          .thenApplyAsync(done -> squares.stream().mapToLong(CompletableFuture::join).sum(), executor);
+    }
+}
@@ -0,0 +1,168 @@
+package cn.tuyucheng.taketoday.concurrent.future;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A front end for the slow square calculation that collects calls for up to {@code window}, or until
+ * {@code maxBatchSize} distinct inputs are waiting, and computes them in one executor task that pays the one second
+ * delay once. Inputs that are already waiting or running are not added again; their callers share the result.
+ * Executor submissions and blocked pool threads therefore grow with the number of batches, not the number of callers.
+ */
+public class BatchingSquareCalculator {
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService executor;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    private final Map<Integer, CompletableFuture<Integer>> inFlight = new HashMap<>();
+    private List<Integer> batch = new ArrayList<>();
+    private ScheduledFuture<?> flushTimer;
+
+    private final LongAdder batches = new LongAdder();
+
+    public BatchingSquareCalculator(ScheduledExecutorService scheduler, ExecutorService executor, Duration window, int maxBatchSize) {
+        if (window.isNegative() || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Invalid window " + window + " or batch size " + maxBatchSize);
+        }
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * @return a future of its own for every caller, so cancelling it does not affect callers sharing the input
+     */
+    public CompletableFuture<Integer> calculate(Integer input) {
+        Objects.requireNonNull(input, "input");
+        CompletableFuture<Integer> result;
+        List<Integer> full = null;
+        List<Integer> started = null;
+        synchronized (lock) {
+            result = inFlight.get(input);
+            if (result == null) {
+                result = new CompletableFuture<>();
+                inFlight.put(input, result);
+                batch.add(input);
+                if (batch.size() >= maxBatchSize) {
+                    full = takeBatch();
+                } else if (batch.size() == 1) {
+                    started = batch;
+                }
+            }
+        }
+        if (full != null) {
+            submit(full);
+        } else if (started != null) {
+            startTimer(started);
+        }
+        return result.copy();
+    }
+
+    /**
+     * Submits the waiting inputs without waiting for the window to end.
+     */
+    public void flush() {
+        List<Integer> waiting;
+        synchronized (lock) {
+            waiting = takeBatch();
+        }
+        if (!waiting.isEmpty()) {
+            submit(waiting);
+        }
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Schedules outside the lock so a slow or rejecting scheduler does not hold up other callers. If the batch has been
+     * taken in the meantime the timer is no longer needed; if the scheduler rejects it the batch is flushed right away
+     * instead of waiting for a timer that will never run.
+     */
+    private void startTimer(List<Integer> started) {
+        ScheduledFuture<?> timer;
+        try {
+            timer = scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            flush();
+            return;
+        }
+        synchronized (lock) {
+            if (batch == started) {
+                flushTimer = timer;
+                return;
+            }
+        }
+        timer.cancel(false);
+    }
+
+    private List<Integer> takeBatch() {
+        if (flushTimer != null) {
+            flushTimer.cancel(false);
+            flushTimer = null;
+        }
+        List<Integer> taken = batch;
+        batch = new ArrayList<>();
+        return taken;
+    }
+
+    private void submit(List<Integer> inputs) {
+        batches.increment();
+        try {
+            executor.execute(() -> calculateBatch(inputs));
+        } catch (RejectedExecutionException e) {
+            completeExceptionally(inputs, e);
+        }
+    }
+
+    private void calculateBatch(List<Integer> inputs) {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            completeExceptionally(inputs, e);
+            return;
+        }
+        Throwable failure = null;
+        for (Integer input : inputs) {
+            CompletableFuture<Integer> result = remove(input);
+            if (failure == null) {
+                try {
+                    result.complete(input * input);
+                    continue;
+                } catch (RuntimeException | Error e) {
+                    failure = e;
+                }
+            }
+            // the rest of the batch must not stay in flight, or later callers of the same inputs would wait forever
+            result.completeExceptionally(failure);
+        }
+    }
+
+    private void completeExceptionally(List<Integer> inputs, Throwable cause) {
+        for (Integer input : inputs) {
+            remove(input).completeExceptionally(cause);
+        }
+    }
+
+    private CompletableFuture<Integer> remove(Integer input) {
+        synchronized (lock) {
+            return inFlight.remove(input);
+        }
+    }
+}
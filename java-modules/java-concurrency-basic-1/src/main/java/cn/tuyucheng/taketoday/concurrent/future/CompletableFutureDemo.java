@@ -0,0 +1,35 @@
+package cn.tuyucheng.taketoday.concurrent.future;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link FutureDemo} without a blocked {@code get(20, SECONDS)}: the caller gets a stage that yields the greeting, or
+ * {@code null} once the timeout passes, and can go on composing it. Any other failure is passed on unchanged.
+ */
+public class CompletableFutureDemo {
+    private final Executor executor;
+
+    public CompletableFutureDemo(Executor executor) {
+        this.executor = executor;
+    }
+
+    public CompletableFuture<String> invoke(Duration taskDuration, Duration timeout) {
+        Executor delayed = CompletableFuture.delayedExecutor(taskDuration.toNanos(), TimeUnit.NANOSECONDS, executor);
+        return CompletableFuture.supplyAsync(() -> "Hello world", delayed)
+          .orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
+          .exceptionally(CompletableFutureDemo::nullOnTimeout);
+    }
+
+    private static String nullOnTimeout(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof TimeoutException) {
+            return null;
+        }
+        throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+    }
+}
@@ -0,0 +1,176 @@
+package cn.tuyucheng.taketoday.concurrent.future;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.LatencyHistogram;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.LatencyRecorder;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a task and, if it has not finished after the current hedge delay, submits a second attempt of the same task.
+ * Whichever attempt finishes first completes the returned future and the other one is cancelled, so tasks must be
+ * safe to run twice. The hedge delay is the configured percentile of recent request latencies. Hedges are paid from a
+ * token bucket that gains {@code budget} tokens per request and holds at most {@value #MAX_HEDGE_BURST}, so about
+ * {@code budget} of the requests are hedged over time and a quiet period does not save up a burst of hedges.
+ * <p>
+ * The returned future only fails once every attempt has failed. An attempt that fails before the delay has passed
+ * sends the hedge right away, if the budget allows, instead of failing the request.
+ */
+public class HedgedExecutor {
+    private static final int REFRESH_EVERY = 64;
+    private static final int MIN_SAMPLES = 32;
+    private static final int MAX_SAMPLES = 10_000;
+    private static final int MAX_HEDGE_BURST = 10;
+    // hedge tokens are counted in millionths so that fractional budgets accumulate exactly
+    private static final long TOKEN = 1_000_000;
+
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+    private final double percentile;
+    private final long refillPerRequest;
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final LatencyHistogram window = new LatencyHistogram();
+    private volatile long hedgeDelayNanos;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeTokens = new AtomicLong();
+
+    /**
+     * @param percentile   latency percentile after which an attempt is hedged, e.g. 95
+     * @param budget       hedge tokens added per request, i.e. the long-run ratio of hedges to requests, e.g. 0.05
+     * @param initialDelay hedge delay used until enough latencies have been recorded
+     */
+    public HedgedExecutor(ExecutorService executor, ScheduledExecutorService scheduler, double percentile, double budget, Duration initialDelay) {
+        if (percentile <= 0 || percentile > 100 || budget < 0 || budget > 1) {
+            throw new IllegalArgumentException("Invalid percentile " + percentile + " or budget " + budget);
+        }
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.percentile = percentile;
+        this.refillPerRequest = Math.round(budget * TOKEN);
+        this.hedgeDelayNanos = initialDelay.toNanos();
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        if (requests.incrementAndGet() % REFRESH_EVERY == 0) {
+            refreshDelay();
+        }
+        if (refillPerRequest > 0) {
+            addTokens(refillPerRequest);
+        }
+        Request<T> request = new Request<>(task, System.nanoTime());
+        CompletableFuture<T> result = request.result;
+        Future<?> primary = executor.submit(request::attempt);
+        ScheduledFuture<?> timer = scheduler.schedule(request::hedge, hedgeDelayNanos, TimeUnit.NANOSECONDS);
+        result.whenComplete((value, e) -> {
+            timer.cancel(false);
+            primary.cancel(true);
+        });
+        return result;
+    }
+
+    public Duration getHedgeDelay() {
+        return Duration.ofNanos(hedgeDelayNanos);
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    private boolean tryAcquireHedge() {
+        long tokens;
+        do {
+            tokens = hedgeTokens.get();
+            if (tokens < TOKEN) {
+                return false;
+            }
+        } while (!hedgeTokens.compareAndSet(tokens, tokens - TOKEN));
+        return true;
+    }
+
+    private void addTokens(long amount) {
+        hedgeTokens.accumulateAndGet(amount, (tokens, added) -> Math.min(tokens + added, MAX_HEDGE_BURST * TOKEN));
+    }
+
+    private synchronized void refreshDelay() {
+        window.add(recorder.getIntervalHistogram());
+        if (window.getTotalCount() >= MIN_SAMPLES) {
+            hedgeDelayNanos = window.getValueAtPercentile(percentile);
+        }
+        if (window.getTotalCount() >= MAX_SAMPLES) {
+            // start over so the delay follows changes in latency
+            window.reset();
+        }
+    }
+
+    private final class Request<T> {
+        private final Callable<T> task;
+        private final long start;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicBoolean hedgeClaimed = new AtomicBoolean();
+        private final AtomicInteger running = new AtomicInteger(1);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Request(Callable<T> task, long start) {
+            this.task = task;
+            this.start = start;
+        }
+
+        void attempt() {
+            try {
+                T value = task.call();
+                if (result.complete(value)) {
+                    recorder.record(System.nanoTime() - start);
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+                hedge();
+                finished();
+            }
+        }
+
+        void hedge() {
+            if (result.isDone() || !hedgeClaimed.compareAndSet(false, true) || !tryAcquireHedge()) {
+                return;
+            }
+            if (running.getAndUpdate(attempts -> attempts == 0 ? 0 : attempts + 1) == 0) {
+                // every attempt has already failed and the result is being completed
+                addTokens(TOKEN);
+                return;
+            }
+            Future<?> backup;
+            try {
+                backup = executor.submit(this::attempt);
+            } catch (RejectedExecutionException e) {
+                addTokens(TOKEN);
+                finished();
+                return;
+            }
+            hedges.incrementAndGet();
+            result.whenComplete((value, e) -> backup.cancel(true));
+        }
+
+        private void finished() {
+            if (running.decrementAndGet() == 0) {
+                result.completeExceptionally(failure.get());
+            }
+        }
+    }
+}
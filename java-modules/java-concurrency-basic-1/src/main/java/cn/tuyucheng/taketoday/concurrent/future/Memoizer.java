@@ -0,0 +1,94 @@
+package cn.tuyucheng.taketoday.concurrent.future;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caches a future per key, so concurrent callers asking for the same key compute it once: the caller that installs the
+ * future runs the function on its own thread and the others wait on that future. Unlike
+ * {@link ConcurrentHashMap#computeIfAbsent}, no bin lock is held while the function runs. A failed computation is
+ * removed again, so the next call retries it.
+ */
+public class Memoizer<K, V> {
+    private final ConcurrentMap<K, Future<V>> cache = new ConcurrentHashMap<>();
+    private final Function<? super K, ? extends V> function;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+
+    public Memoizer(Function<? super K, ? extends V> function) {
+        this.function = function;
+    }
+
+    public V compute(K key) throws InterruptedException {
+        Future<V> future = cache.get(key);
+        if (future == null) {
+            FutureTask<V> task = new FutureTask<>(() -> function.apply(key));
+            future = cache.putIfAbsent(key, task);
+            if (future == null) {
+                misses.increment();
+                future = task;
+                task.run();
+            } else {
+                countShared(future);
+            }
+        } else {
+            countShared(future);
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            cache.remove(key, future);
+            throw launder(e.getCause());
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * @return calls answered from a computation that had already finished
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return calls that ran the function
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return calls that waited for another caller's computation
+     */
+    public long getWaitCount() {
+        return waits.sum();
+    }
+
+    private void countShared(Future<V> future) {
+        if (future.isDone()) {
+            hits.increment();
+        } else {
+            waits.increment();
+        }
+    }
+
+    private static RuntimeException launder(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,64 @@
+package cn.tuyucheng.taketoday.concurrent.future;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Reduces a function over the integer range [from, to) by splitting it in balanced halves. Instead of a fixed
+ * sequential cutoff, a task keeps forking its right half only while its worker has few queued tasks left
+ * ({@link #getSurplusQueuedTaskCount()}); once idle workers have enough to steal, the rest of the range runs
+ * sequentially. {@code minLeafSize} is a lower bound that keeps tiny ranges from being split at all.
+ */
+public class RangeReducer<R> extends RecursiveTask<R> {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    private static final int MAX_SURPLUS = 3;
+
+    private final int from;
+    private final int to;
+    private final int minLeafSize;
+    private final RangeFunction<R> leaf;
+    private final BinaryOperator<R> combiner;
+
+    /**
+     * @param leaf     computes the result of a sub-range sequentially
+     * @param combiner merges the results of two adjacent sub-ranges, left one first
+     */
+    public RangeReducer(int from, int to, int minLeafSize, RangeFunction<R> leaf, BinaryOperator<R> combiner) {
+        if (from > to || minLeafSize < 1) {
+            throw new IllegalArgumentException("Invalid range [" + from + ", " + to + ") or leaf size " + minLeafSize);
+        }
+        this.from = from;
+        this.to = to;
+        this.minLeafSize = minLeafSize;
+        this.leaf = leaf;
+        this.combiner = combiner;
+    }
+
+    @Override
+    protected R compute() {
+        List<RangeReducer<R>> forked = new ArrayList<>();
+        int hi = to;
+        while (hi - from > minLeafSize && getSurplusQueuedTaskCount() <= MAX_SURPLUS) {
+            int mid = (int) (((long) from + hi) >>> 1);
+            RangeReducer<R> right = new RangeReducer<>(mid, hi, minLeafSize, leaf, combiner);
+            right.fork();
+            forked.add(right);
+            hi = mid;
+        }
+        R result = leaf.apply(from, hi);
+        // the last forked task covers the range right after ours, so join in reverse order
+        for (int i = forked.size() - 1; i >= 0; i--) {
+            result = combiner.apply(result, forked.get(i).join());
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    public interface RangeFunction<R> {
+        R apply(int from, int to);
+    }
+}
@@ -0,0 +1,124 @@
+package cn.tuyucheng.taketoday.concurrent.future;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Unlike {@link ExecutorService#invokeAll(java.util.Collection, long, TimeUnit)}, keeps whatever finished within the
+ * time budget: every task gets an {@link Outcome}, and the tasks still running at the deadline are cancelled and
+ * reported as {@link Status#TIMED_OUT}.
+ */
+public class ScatterGather {
+    private final ExecutorService executor;
+
+    public ScatterGather(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public <T> List<Outcome<T>> invokeAll(List<? extends Callable<T>> tasks, Duration budget) throws InterruptedException {
+        return invokeAll(tasks, budget, outcome -> {
+        });
+    }
+
+    /**
+     * @param onArrival called on the calling thread with each outcome as soon as its task completes
+     * @return the outcomes in the order of the tasks
+     */
+    public <T> List<Outcome<T>> invokeAll(List<? extends Callable<T>> tasks, Duration budget, Consumer<? super Outcome<T>> onArrival) throws InterruptedException {
+        long deadline = System.nanoTime() + budget.toNanos();
+        ExecutorCompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        Map<Future<T>, Integer> indexes = new HashMap<>();
+        List<Outcome<T>> outcomes = new ArrayList<>(Collections.nCopies(tasks.size(), null));
+        try {
+            for (Callable<T> task : tasks) {
+                Future<T> future = completionService.submit(task);
+                indexes.put(future, futures.size());
+                futures.add(future);
+            }
+            for (int received = 0; received < tasks.size(); received++) {
+                long remaining = deadline - System.nanoTime();
+                Future<T> future = remaining > 0 ? completionService.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (future == null) {
+                    break;
+                }
+                int index = indexes.get(future);
+                Outcome<T> outcome = outcomeOf(index, future);
+                outcomes.set(index, outcome);
+                onArrival.accept(outcome);
+            }
+        } finally {
+            for (int i = 0; i < outcomes.size(); i++) {
+                if (outcomes.get(i) == null) {
+                    if (i < futures.size()) {
+                        futures.get(i).cancel(true);
+                    }
+                    outcomes.set(i, new Outcome<>(i, Status.TIMED_OUT, null, null));
+                }
+            }
+        }
+        return outcomes;
+    }
+
+    private static <T> Outcome<T> outcomeOf(int index, Future<T> done) throws InterruptedException {
+        try {
+            return new Outcome<>(index, Status.COMPLETED, done.get(), null);
+        } catch (ExecutionException e) {
+            return new Outcome<>(index, Status.FAILED, null, e.getCause());
+        } catch (CancellationException e) {
+            // cancelled by someone else, e.g. the executor; only the stragglers cancelled here count as timed out
+            return new Outcome<>(index, Status.FAILED, null, e);
+        }
+    }
+
+    public enum Status {
+        COMPLETED, FAILED, TIMED_OUT
+    }
+
+    public static class Outcome<T> {
+        private final int index;
+        private final Status status;
+        private final T value;
+        private final Throwable error;
+
+        Outcome(int index, Status status, T value, Throwable error) {
+            this.index = index;
+            this.status = status;
+            this.value = value;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return "Outcome{index=" + index + ", status=" + status + ", value=" + value + ", error=" + error + '}';
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package cn.tuyucheng.taketoday.concurrent.future;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class SquareSumCalculator {
+    private static final int MIN_LEAF_SIZE = 1024;
+
+    private final ForkJoinPool pool;
+
+    public SquareSumCalculator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @return 1^2 + 2^2 + ... + n^2, which fits in a long up to n = 3,000,000
+     */
+    public long sumOfSquares(int n) {
+        if (n < 1) {
+            return 0;
+        }
+        return pool.invoke(new RangeReducer<>(1, n + 1, MIN_LEAF_SIZE, SquareSumCalculator::sequentialSum, Long::sum));
+    }
+
+    private static Long sequentialSum(int from, int to) {
+        long sum = 0;
+        for (long i = from; i < to; i++) {
+            sum += i * i;
+        }
+        return sum;
+    }
+}
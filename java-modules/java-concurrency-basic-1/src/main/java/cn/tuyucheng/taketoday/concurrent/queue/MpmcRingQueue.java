@@ -0,0 +1,89 @@
+package cn.tuyucheng.taketoday.concurrent.queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+
+/**
+ * A ring queue for any number of producer and consumer threads, after Dmitry Vyukov's bounded MPMC queue. Every slot
+ * carries a sequence number that says whose turn it is: {@code index} when a producer may fill it, {@code index + 1}
+ * when a consumer may empty it, and {@code index + capacity} once it is free for the next lap.
+ */
+public class MpmcRingQueue<E> extends RingQueue<E> {
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] sequences;
+
+    public MpmcRingQueue(int capacity) {
+        super(capacity);
+        sequences = new long[capacity()];
+        for (int i = 0; i < sequences.length; i++) {
+            sequences[i] = i;
+        }
+    }
+
+    @Override
+    public boolean offer(E element) {
+        Objects.requireNonNull(element);
+        while (true) {
+            long index = getProducerIndex();
+            int offset = offset(index);
+            long sequence = loadSequence(offset);
+            if (sequence == index) {
+                if (casProducerIndex(index, index + 1)) {
+                    buffer[offset] = element;
+                    storeSequence(offset, index + 1);
+                    return true;
+                }
+            } else if (sequence < index) {
+                // the slot still holds an element from the previous lap
+                return false;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        while (true) {
+            long index = getConsumerIndex();
+            int offset = offset(index);
+            long sequence = loadSequence(offset);
+            if (sequence == index + 1) {
+                if (casConsumerIndex(index, index + 1)) {
+                    E element = (E) buffer[offset];
+                    buffer[offset] = null;
+                    storeSequence(offset, index + capacity());
+                    return element;
+                }
+            } else if (sequence < index + 1) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public E peek() {
+        while (true) {
+            long index = getConsumerIndex();
+            int offset = offset(index);
+            long sequence = loadSequence(offset);
+            if (sequence == index + 1) {
+                E element = loadElement(offset);
+                if (index == getConsumerIndex()) {
+                    return element;
+                }
+            } else if (sequence < index + 1) {
+                return null;
+            }
+        }
+    }
+
+    private long loadSequence(int offset) {
+        return (long) SEQUENCE.getAcquire(sequences, offset);
+    }
+
+    private void storeSequence(int offset, long sequence) {
+        SEQUENCE.setRelease(sequences, offset, sequence);
+    }
+}
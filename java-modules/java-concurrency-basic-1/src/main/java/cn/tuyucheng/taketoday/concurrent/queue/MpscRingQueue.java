@@ -0,0 +1,60 @@
+package cn.tuyucheng.taketoday.concurrent.queue;
+
+import java.util.Objects;
+
+/**
+ * A ring queue for any number of producer threads and one consumer thread. Producers claim a slot with a CAS on the
+ * producer index and then publish the element into it; the consumer sees a claimed but not yet published slot as null
+ * and waits for the element rather than reporting the queue empty.
+ */
+public class MpscRingQueue<E> extends RingQueue<E> {
+
+    public MpscRingQueue(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(E element) {
+        Objects.requireNonNull(element);
+        long index;
+        do {
+            index = getProducerIndex();
+            if (index - getConsumerIndex() >= capacity()) {
+                return false;
+            }
+        } while (!casProducerIndex(index, index + 1));
+        storeElement(offset(index), element);
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        long index = getConsumerIndex();
+        int offset = offset(index);
+        E element = awaitElement(index, offset);
+        if (element == null) {
+            return null;
+        }
+        storeElement(offset, null);
+        setConsumerIndexRelease(index + 1);
+        return element;
+    }
+
+    @Override
+    public E peek() {
+        long index = getConsumerIndex();
+        return awaitElement(index, offset(index));
+    }
+
+    private E awaitElement(long index, int offset) {
+        E element = loadElement(offset);
+        if (element == null && index != getProducerIndex()) {
+            // a producer has claimed the slot but not written it yet
+            do {
+                Thread.yield();
+                element = loadElement(offset);
+            } while (element == null);
+        }
+        return element;
+    }
+}
@@ -0,0 +1,267 @@
+package cn.tuyucheng.taketoday.concurrent.queue;
+
+import java.lang.invoke.VarHandle;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Adds blocking to a {@link RingQueue} without a lock: a thread that has to wait registers itself, checks the queue
+ * once more and parks, and a successful offer or poll fences and then unparks one waiter of the other side if there is
+ * any. The fence pairs with the registration, so either the waiter sees the element or the other side sees the waiter,
+ * and no wake-up is lost. The non-blocking methods stay lock-free, so it can be used as the work queue of a
+ * {@link java.util.concurrent.ThreadPoolExecutor} as long as the ring supports as many producers and consumers as the
+ * pool has submitters and workers, which in general means an {@link MpmcRingQueue}.
+ * <p>
+ * Elements are stored in the ring as they are, so offer and poll do not allocate. {@link #remove(Object)} is the slow
+ * path: under a lock it claims an occurrence of the element still in the ring, and the consumer that later polls that
+ * occurrence drops it. Consumers only look at the claims while a removal is pending, which the same fence lets them
+ * see. A claimed element takes up its slot until it reaches the head, so {@link #remainingCapacity()} counts it as
+ * used.
+ */
+public class RingBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+    private final RingQueue<E> queue;
+    private final Waiters waitingConsumers = new Waiters();
+    private final Waiters waitingProducers = new Waiters();
+    // removals in progress plus claimed elements still in the ring, only changed while holding claims
+    private final AtomicInteger pendingRemovals = new AtomicInteger();
+    private final Map<Object, Integer> claims = new IdentityHashMap<>();
+
+    public RingBlockingQueue(RingQueue<E> queue) {
+        this.queue = queue;
+    }
+
+    @Override
+    public boolean offer(E element) {
+        if (queue.offer(element)) {
+            VarHandle.fullFence();
+            waitingConsumers.signal();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public E poll() {
+        E element;
+        while ((element = queue.poll()) != null) {
+            VarHandle.fullFence();
+            waitingProducers.signal();
+            if (pendingRemovals.get() == 0 || !dropIfClaimed(element)) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public E peek() {
+        // read the head first: if no removal is pending afterwards, none had claimed it when it was read
+        E head = queue.peek();
+        if (head == null || pendingRemovals.get() == 0) {
+            return head;
+        }
+        List<E> unclaimed = unclaimedElements();
+        return unclaimed.isEmpty() ? null : unclaimed.get(0);
+    }
+
+    @Override
+    public void put(E element) throws InterruptedException {
+        Objects.requireNonNull(element);
+        await(() -> offer(element) ? Boolean.TRUE : null, waitingProducers, false, 0);
+    }
+
+    @Override
+    public boolean offer(E element, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(element);
+        return await(() -> offer(element) ? Boolean.TRUE : null, waitingProducers, true, unit.toNanos(timeout)) != null;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return await(this::poll, waitingConsumers, false, 0);
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return await(this::poll, waitingConsumers, true, unit.toNanos(timeout));
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return queue.capacity() - queue.size();
+    }
+
+    /**
+     * Claims the first occurrence of the element that is still in the ring and not claimed yet. Announcing the removal
+     * before looking pairs with the fence in {@link #poll()}: a consumer that polled the occurrence before the
+     * announcement has already moved it out of the ring, and one that polls it later sees the claim and drops it.
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        synchronized (claims) {
+            pendingRemovals.incrementAndGet();
+            Map<Object, Integer> seen = new IdentityHashMap<>();
+            for (E element : queue) {
+                if (o.equals(element) && seen.merge(element, 1, Integer::sum) > claims.getOrDefault(element, 0)) {
+                    claims.merge(element, 1, Integer::sum);
+                    return true;
+                }
+            }
+            pendingRemovals.decrementAndGet();
+            return false;
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        Objects.requireNonNull(c);
+        if (c == this) {
+            throw new IllegalArgumentException("Cannot drain a queue into itself");
+        }
+        int drained = 0;
+        E element;
+        while (drained < maxElements && (element = poll()) != null) {
+            c.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * @return the number of elements, which like the size of any concurrent queue may be out of date by the time it
+     * is used
+     */
+    @Override
+    public int size() {
+        return Math.max(0, queue.size() - pendingRemovals.get());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return peek() == null;
+    }
+
+    /**
+     * @return an iterator over a snapshot that does not support removal, like the ring's own
+     */
+    @Override
+    public Iterator<E> iterator() {
+        if (pendingRemovals.get() == 0) {
+            return queue.iterator();
+        }
+        return Collections.unmodifiableList(unclaimedElements()).iterator();
+    }
+
+    private List<E> unclaimedElements() {
+        synchronized (claims) {
+            List<E> unclaimed = new ArrayList<>();
+            Map<Object, Integer> seen = new IdentityHashMap<>();
+            for (E element : queue) {
+                // claims apply to the earliest occurrences, those are the ones poll drops
+                if (seen.merge(element, 1, Integer::sum) > claims.getOrDefault(element, 0)) {
+                    unclaimed.add(element);
+                }
+            }
+            return unclaimed;
+        }
+    }
+
+    private boolean dropIfClaimed(E element) {
+        synchronized (claims) {
+            Integer claimed = claims.get(element);
+            if (claimed == null) {
+                return false;
+            }
+            if (claimed == 1) {
+                claims.remove(element);
+            } else {
+                claims.put(element, claimed - 1);
+            }
+            pendingRemovals.decrementAndGet();
+            return true;
+        }
+    }
+
+    private <T> T await(Supplier<T> attempt, Waiters waiters, boolean timed, long nanos) throws InterruptedException {
+        long deadline = timed ? System.nanoTime() + nanos : 0;
+        Thread current = Thread.currentThread();
+        while (true) {
+            T result = attempt.get();
+            if (result != null) {
+                return result;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            long remaining = deadline - System.nanoTime();
+            if (timed && remaining <= 0) {
+                return null;
+            }
+            waiters.register(current);
+            try {
+                // an element offered before we registered is seen here, one offered after unparks us
+                result = attempt.get();
+                if (result != null) {
+                    return result;
+                }
+                if (timed) {
+                    LockSupport.parkNanos(this, remaining);
+                } else {
+                    LockSupport.park(this);
+                }
+            } finally {
+                waiters.deregister(current);
+            }
+        }
+    }
+
+    private static final class Waiters {
+        private final Queue<Thread> threads = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger count = new AtomicInteger();
+
+        void register(Thread thread) {
+            // add first, so that a signal that sees the count also finds the thread
+            threads.add(thread);
+            count.incrementAndGet();
+        }
+
+        void deregister(Thread thread) {
+            threads.remove(thread);
+            count.decrementAndGet();
+        }
+
+        /**
+         * Must follow a full fence after the queue changed, which pairs with the count increment in {@link #register}.
+         */
+        void signal() {
+            if (count.get() != 0) {
+                Thread waiter = threads.poll();
+                if (waiter != null) {
+                    LockSupport.unpark(waiter);
+                }
+            }
+        }
+    }
+}
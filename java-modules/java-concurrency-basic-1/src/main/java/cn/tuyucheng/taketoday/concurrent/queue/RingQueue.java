@@ -0,0 +1,77 @@
+package cn.tuyucheng.taketoday.concurrent.queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A bounded, array-based, lock-free queue. The capacity is rounded up to a power of two and null elements are not
+ * allowed. Subclasses differ in how many threads may offer and poll at the same time; using one with more producers or
+ * consumers than it supports corrupts it. The iterator returns a snapshot and does not support removal.
+ */
+public abstract class RingQueue<E> extends RingQueueIndices<E> {
+    private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    final Object[] buffer;
+    final int mask;
+
+    RingQueue(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 2 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Object[size];
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    @Override
+    public int size() {
+        long after = getConsumerIndex();
+        while (true) {
+            long before = after;
+            long producerIndex = getProducerIndex();
+            after = getConsumerIndex();
+            if (before == after) {
+                return (int) Math.max(0, Math.min(producerIndex - after, capacity()));
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getProducerIndex() == getConsumerIndex();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        List<E> snapshot = new ArrayList<>();
+        long producerIndex = getProducerIndex();
+        for (long index = getConsumerIndex(); index < producerIndex; index++) {
+            E element = loadElement(offset(index));
+            if (element != null) {
+                snapshot.add(element);
+            }
+        }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    final int offset(long index) {
+        return (int) index & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    final E loadElement(int offset) {
+        return (E) ELEMENT.getAcquire(buffer, offset);
+    }
+
+    final void storeElement(int offset, E element) {
+        ELEMENT.setRelease(buffer, offset, element);
+    }
+}
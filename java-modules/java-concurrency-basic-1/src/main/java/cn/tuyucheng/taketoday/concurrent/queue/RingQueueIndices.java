@@ -0,0 +1,75 @@
+package cn.tuyucheng.taketoday.concurrent.queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractQueue;
+
+// Superclass fields are laid out before subclass fields, so the padding classes keep the producer and the consumer
+// index on cache lines of their own and away from the object header and the buffer reference.
+
+abstract class RingQueuePad0<E> extends AbstractQueue<E> {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class RingQueueProducerIndex<E> extends RingQueuePad0<E> {
+    private static final VarHandle PRODUCER_INDEX;
+
+    static {
+        try {
+            PRODUCER_INDEX = MethodHandles.lookup().findVarHandle(RingQueueProducerIndex.class, "producerIndex", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long producerIndex;
+
+    final long getProducerIndex() {
+        return producerIndex;
+    }
+
+    final void setProducerIndexRelease(long index) {
+        PRODUCER_INDEX.setRelease(this, index);
+    }
+
+    final boolean casProducerIndex(long expected, long index) {
+        return PRODUCER_INDEX.compareAndSet(this, expected, index);
+    }
+}
+
+abstract class RingQueuePad1<E> extends RingQueueProducerIndex<E> {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class RingQueueConsumerIndex<E> extends RingQueuePad1<E> {
+    private static final VarHandle CONSUMER_INDEX;
+
+    static {
+        try {
+            CONSUMER_INDEX = MethodHandles.lookup().findVarHandle(RingQueueConsumerIndex.class, "consumerIndex", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long consumerIndex;
+
+    final long getConsumerIndex() {
+        return consumerIndex;
+    }
+
+    final void setConsumerIndexRelease(long index) {
+        CONSUMER_INDEX.setRelease(this, index);
+    }
+
+    final boolean casConsumerIndex(long expected, long index) {
+        return CONSUMER_INDEX.compareAndSet(this, expected, index);
+    }
+}
+
+abstract class RingQueueIndices<E> extends RingQueueConsumerIndex<E> {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
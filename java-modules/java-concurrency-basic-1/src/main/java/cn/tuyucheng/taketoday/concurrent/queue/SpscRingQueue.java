@@ -0,0 +1,45 @@
+package cn.tuyucheng.taketoday.concurrent.queue;
+
+import java.util.Objects;
+
+/**
+ * A ring queue for one producer thread and one consumer thread. Neither side needs a CAS: a slot is free when it is
+ * null and full when it is not, and each index is only written by its owner.
+ */
+public class SpscRingQueue<E> extends RingQueue<E> {
+
+    public SpscRingQueue(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(E element) {
+        Objects.requireNonNull(element);
+        long index = getProducerIndex();
+        int offset = offset(index);
+        if (loadElement(offset) != null) {
+            return false;
+        }
+        storeElement(offset, element);
+        setProducerIndexRelease(index + 1);
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        long index = getConsumerIndex();
+        int offset = offset(index);
+        E element = loadElement(offset);
+        if (element == null) {
+            return null;
+        }
+        storeElement(offset, null);
+        setConsumerIndexRelease(index + 1);
+        return element;
+    }
+
+    @Override
+    public E peek() {
+        return loadElement(offset(getConsumerIndex()));
+    }
+}
@@ -0,0 +1,78 @@
+package cn.tuyucheng.taketoday.concurrent.threadfactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executors that start a new thread for every task instead of queueing tasks for a fixed number of threads, so
+ * blocking tasks are not capped by a pool size. With virtual threads a blocked task only holds on to its stack chunk
+ * on the heap, not to an OS thread.
+ */
+public final class ThreadPerTaskExecutors {
+    /**
+     * Enough for a few hundred tasks blocked on I/O at once without approaching the OS thread limits.
+     */
+    public static final int DEFAULT_MAX_PLATFORM_THREADS = 256;
+
+    private static final MethodHandle NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        MethodHandle handle = null;
+        try {
+            handle = MethodHandles.publicLookup().findStatic(Executors.class, "newThreadPerTaskExecutor",
+              MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+        } catch (ReflectiveOperationException e) {
+            // before JDK 21
+        }
+        NEW_THREAD_PER_TASK_EXECUTOR = handle;
+    }
+
+    private ThreadPerTaskExecutors() {
+    }
+
+    /**
+     * Before JDK 21 the platform thread fallback is capped at {@value #DEFAULT_MAX_PLATFORM_THREADS} threads.
+     *
+     * @see #newVirtualThreadPerTaskExecutor(String, int)
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String name) {
+        return newVirtualThreadPerTaskExecutor(name, DEFAULT_MAX_PLATFORM_THREADS);
+    }
+
+    /**
+     * Uses virtual threads on JDK 21 and later. Before, runs the tasks on at most {@code maxPlatformThreads} platform
+     * threads and queues the rest, so a burst of blocking tasks cannot start an unbounded number of OS threads.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String name, int maxPlatformThreads) {
+        if (TuyuchengThreadFactory.isVirtualThreadSupported()) {
+            return newThreadPerTaskExecutor(new TuyuchengThreadFactory(name, true));
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxPlatformThreads, maxPlatformThreads, 60, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(), new TuyuchengThreadFactory(name, false, false));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Before JDK 21 this is an unbounded cached pool, which also never queues a task but reuses idle threads.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(ThreadFactory factory) {
+        if (NEW_THREAD_PER_TASK_EXECUTOR == null) {
+            return Executors.newCachedThreadPool(factory);
+        }
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(factory);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
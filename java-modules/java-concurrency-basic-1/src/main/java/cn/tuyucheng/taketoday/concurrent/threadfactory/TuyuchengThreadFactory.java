@@ -1,21 +1,91 @@
 package cn.tuyucheng.taketoday.concurrent.threadfactory;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TuyuchengThreadFactory implements ThreadFactory {
-    private int threadId;
+    // Thread.ofVirtual().name(String).unstarted(Runnable), looked up at runtime because the build targets Java 17
+    private static final MethodHandle OF_VIRTUAL;
+    private static final MethodHandle NAME;
+    private static final MethodHandle UNSTARTED;
+
+    static {
+        MethodHandle ofVirtual = null;
+        MethodHandle name = null;
+        MethodHandle unstarted = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Class<?> virtualBuilder = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(virtualBuilder));
+            name = lookup.findVirtual(builder, "name", MethodType.methodType(builder, String.class));
+            unstarted = lookup.findVirtual(builder, "unstarted", MethodType.methodType(Thread.class, Runnable.class));
+        } catch (ReflectiveOperationException e) {
+            // before JDK 21: virtual threads are not available, platform threads are used instead
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+    }
+
+    private final AtomicInteger threadId = new AtomicInteger(1);
     private final String name;
+    private final boolean virtual;
+    private final boolean logCreation;
 
     public TuyuchengThreadFactory(String name) {
-        threadId = 1;
+        this(name, false);
+    }
+
+    /**
+     * @param virtual whether to create virtual threads; ignored, with platform threads created instead, before JDK 21
+     */
+    public TuyuchengThreadFactory(String name, boolean virtual) {
+        this(name, virtual, !virtual);
+    }
+
+    /**
+     * @param logCreation whether to print a line for every platform thread created; virtual threads are never logged
+     */
+    public TuyuchengThreadFactory(String name, boolean virtual, boolean logCreation) {
         this.name = name;
+        this.virtual = virtual && isVirtualThreadSupported();
+        this.logCreation = logCreation;
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
     }
 
     @Override
     public Thread newThread(Runnable r) {
-        Thread t = new Thread(r, name + "-Thread_" + threadId);
-        System.out.println("created new thread with id : " + threadId + " and name : " + t.getName());
-        threadId++;
+        int id = threadId.getAndIncrement();
+        if (virtual) {
+            // no logging here: virtual threads are created by the hundred thousand
+            return newVirtualThread(r, name + "-VirtualThread_" + id);
+        }
+        Thread t = new Thread(r, name + "-Thread_" + id);
+        if (logCreation) {
+            System.out.println("created new thread with id : " + id + " and name : " + t.getName());
+        }
         return t;
     }
-}
\ No newline at end of file
+
+    private static Thread newVirtualThread(Runnable r, String threadName) {
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(), threadName);
+            return (Thread) UNSTARTED.invoke(builder, r);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create virtual thread " + threadName, e);
+        }
+    }
+}
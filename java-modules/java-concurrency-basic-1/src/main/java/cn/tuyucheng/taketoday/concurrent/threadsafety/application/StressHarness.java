@@ -0,0 +1,107 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.application;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.callables.*;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+
+/**
+ * Calls a callable in a loop from a number of threads for a fixed duration and reports throughput, per-call latency
+ * percentiles and, for the counter callables, the number of lost updates.
+ */
+public class StressHarness {
+
+    public static StressResult run(String name, Callable<?> callable, LongSupplier observedCount, int threads, Duration duration)
+      throws InterruptedException, ExecutionException {
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        LatencyRecorder recorder = new LatencyRecorder();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<long[]>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(executorService.submit(() -> {
+                startSignal.await();
+                long deadline = System.nanoTime() + duration.toNanos();
+                long operations = 0;
+                long failures = 0;
+                long now;
+                while ((now = System.nanoTime()) < deadline) {
+                    try {
+                        callable.call();
+                        operations++;
+                        recorder.record(System.nanoTime() - now);
+                    } catch (Exception e) {
+                        failures++;
+                    }
+                }
+                return new long[]{operations, failures};
+            }));
+        }
+
+        long start = System.nanoTime();
+        startSignal.countDown();
+        long operations = 0;
+        long failures = 0;
+        for (Future<long[]> worker : workers) {
+            long[] counts = worker.get();
+            operations += counts[0];
+            failures += counts[1];
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        executorService.shutdown();
+
+        return new StressResult(name, threads, elapsed, operations, failures, recorder.getIntervalHistogram(),
+          observedCount == null ? null : observedCount.getAsLong());
+    }
+
+    /**
+     * Usage: {@code StressHarness [durationMillis] [maxThreads]}; runs every callable at 1, 2, 4, ... maxThreads threads.
+     */
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        Duration duration = Duration.ofMillis(args.length > 0 ? Long.parseLong(args[0]) : 1_000);
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        for (int threads : threadCounts(maxThreads)) {
+            Counter counter = new Counter();
+            System.out.println(run("CounterCallable", new CounterCallable(counter), counter::getCounter, threads, duration));
+
+            AtomicCounter atomicCounter = new AtomicCounter();
+            System.out.println(run("AtomicCounterCallable", new AtomicCounterCallable(atomicCounter), atomicCounter::getCounter, threads, duration));
+
+            ObjectLockCounter objectLockCounter = new ObjectLockCounter();
+            System.out.println(run("ExtrinsicLockCounterCallable", new ExtrinsicLockCounterCallable(objectLockCounter), objectLockCounter::getCounter, threads, duration));
+
+            ReentrantLockCounter reentrantLockCounter = new ReentrantLockCounter();
+            System.out.println(run("ReentrantLockCounterCallable", new ReentrantLockCounterCallable(reentrantLockCounter), reentrantLockCounter::getCounter, threads, duration));
+
+            ReentrantReadWriteLockCounter readWriteLockCounter = new ReentrantReadWriteLockCounter();
+            System.out.println(run("ReentrantReadWriteLockCounterCallable", new ReentrantReadWriteLockCounterCallable(readWriteLockCounter), readWriteLockCounter::getCounter, threads, duration));
+
+            StampedLockCounter stampedLockCounter = new StampedLockCounter();
+            System.out.println(run("StampedLockCounterCallable", new StampedLockCounterCallable(stampedLockCounter), stampedLockCounter::getCounter, threads, duration));
+
+            StripedCounter stripedCounter = new StripedCounter();
+            System.out.println(run("StripedCounterCallable", new StripedCounterCallable(stripedCounter), stripedCounter::getCounter, threads, duration));
+
+            MessageService messageService = new MessageService("Welcome to Tuyucheng!");
+            System.out.println(run("MessageServiceCallable", new MessageServiceCallable(messageService), null, threads, duration));
+        }
+    }
+
+    private static List<Integer> threadCounts(int max) {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < max; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(max);
+        return counts;
+    }
+}
@@ -0,0 +1,76 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.application;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.LatencyHistogram;
+
+import java.time.Duration;
+
+public class StressResult {
+    private final String name;
+    private final int threads;
+    private final Duration elapsed;
+    private final long operations;
+    private final long failures;
+    private final LatencyHistogram latencies;
+    private final Long observedCount;
+
+    StressResult(String name, int threads, Duration elapsed, long operations, long failures,
+                 LatencyHistogram latencies, Long observedCount) {
+        this.name = name;
+        this.threads = threads;
+        this.elapsed = elapsed;
+        this.operations = operations;
+        this.failures = failures;
+        this.latencies = latencies;
+        this.observedCount = observedCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public double getOpsPerSecond() {
+        return operations * 1_000_000_000d / elapsed.toNanos();
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Every successful call increments the counter exactly once, so that is the count a thread-safe counter must reach.
+     */
+    public long getExpectedCount() {
+        return operations;
+    }
+
+    /**
+     * @return the final counter value, or {@code null} when the callable does not count anything
+     */
+    public Long getObservedCount() {
+        return observedCount;
+    }
+
+    public long getLostUpdates() {
+        return observedCount == null ? 0 : getExpectedCount() - observedCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-40s threads=%-3d ops/s=%,14.0f p50=%,8dns p99=%,10dns p99.9=%,10dns expected=%,d observed=%s lost=%,d failures=%,d",
+          name, threads, getOpsPerSecond(), latencies.getValueAtPercentile(50), latencies.getValueAtPercentile(99),
+          latencies.getValueAtPercentile(99.9), getExpectedCount(), observedCount == null ? "-" : String.format("%,d", observedCount),
+          getLostUpdates(), failures);
+    }
+}
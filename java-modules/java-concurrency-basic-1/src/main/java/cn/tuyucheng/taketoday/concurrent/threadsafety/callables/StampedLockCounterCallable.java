@@ -0,0 +1,19 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.callables;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.StampedLockCounter;
+
+import java.util.concurrent.Callable;
+
+public class StampedLockCounterCallable implements Callable<Integer> {
+    private final StampedLockCounter counter;
+
+    public StampedLockCounterCallable(StampedLockCounter counter) {
+        this.counter = counter;
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        counter.incrementCounter();
+        return counter.getCounter();
+    }
+}
@@ -0,0 +1,19 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.callables;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.StripedCounter;
+
+import java.util.concurrent.Callable;
+
+public class StripedCounterCallable implements Callable<Integer> {
+    private final StripedCounter counter;
+
+    public StripedCounterCallable(StripedCounter counter) {
+        this.counter = counter;
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        counter.incrementCounter();
+        return counter.getCounter();
+    }
+}
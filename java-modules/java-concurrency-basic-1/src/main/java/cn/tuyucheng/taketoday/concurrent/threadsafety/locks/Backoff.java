@@ -0,0 +1,20 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.locks;
+
+final class Backoff {
+    private static final int YIELD_INTERVAL = 1024;
+
+    private Backoff() {
+    }
+
+    /**
+     * Busy-waits, but gives the CPU away every {@code YIELD_INTERVAL} spins so the lock holder can make progress when
+     * the waiters outnumber the cores.
+     */
+    static void spinWait(int spins) {
+        if ((spins & (YIELD_INTERVAL - 1)) == 0) {
+            Thread.yield();
+        } else {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.locks;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Flat-combining wrapper that makes any sequential structure (a counter, a priority queue, a deque, ...) thread-safe.
+ * Every thread publishes its operation in its own record; the thread that wins the combiner lock applies all published
+ * operations on behalf of the others in one pass, while they wait on their own record instead of parking. The structure
+ * therefore stays hot in one core's cache and the lock changes hands once per batch instead of once per operation.
+ * <p>
+ * Operations must not call back into the same combiner.
+ */
+public class FlatCombiner<T> {
+    private static final int MAX_COMBINE_PASSES = 3;
+
+    private final T structure;
+    private final AtomicBoolean combining = new AtomicBoolean();
+    private final ConcurrentLinkedQueue<Record> records = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Record> localRecord = ThreadLocal.withInitial(this::register);
+
+    public FlatCombiner(T structure) {
+        this.structure = structure;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <R> R apply(Function<? super T, ? extends R> operation) {
+        Record record = localRecord.get();
+        record.operation = operation;
+        int spins = 0;
+        while (record.operation != null) {
+            if (!combining.get() && combining.compareAndSet(false, true)) {
+                try {
+                    combine();
+                } finally {
+                    combining.set(false);
+                }
+            } else {
+                Backoff.spinWait(++spins);
+            }
+        }
+        Throwable failure = record.failure;
+        Object result = record.result;
+        record.failure = null;
+        record.result = null;
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return (R) result;
+    }
+
+    public void execute(Consumer<? super T> operation) {
+        apply(structure -> {
+            operation.accept(structure);
+            return null;
+        });
+    }
+
+    private void combine() {
+        for (int pass = 0; pass < MAX_COMBINE_PASSES; pass++) {
+            boolean applied = false;
+            Iterator<Record> iterator = records.iterator();
+            while (iterator.hasNext()) {
+                Record record = iterator.next();
+                Function<? super T, ?> operation = record.operation;
+                if (operation == null) {
+                    if (!record.owner.isAlive()) {
+                        iterator.remove();
+                    }
+                    continue;
+                }
+                try {
+                    record.result = operation.apply(structure);
+                } catch (RuntimeException | Error e) {
+                    record.failure = e;
+                }
+                // the volatile write publishes result and failure to the waiting owner
+                record.operation = null;
+                applied = true;
+            }
+            if (!applied) {
+                return;
+            }
+        }
+    }
+
+    private Record register() {
+        Record record = new Record(Thread.currentThread());
+        records.add(record);
+        return record;
+    }
+
+    private class Record {
+        private final Thread owner;
+        private volatile Function<? super T, ?> operation;
+        private Object result;
+        private Throwable failure;
+
+        Record(Thread owner) {
+            this.owner = owner;
+        }
+    }
+}
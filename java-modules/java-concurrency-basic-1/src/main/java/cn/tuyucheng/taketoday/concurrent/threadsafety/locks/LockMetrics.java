@@ -0,0 +1,97 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.locks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wait time and queue length seen by the threads acquiring one lock. The queue length recorded for an acquisition is the
+ * number of threads that were already waiting for (or holding) the lock when it arrived.
+ */
+public class LockMetrics {
+    private final AtomicInteger queueLength = new AtomicInteger();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder totalQueueLength = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicInteger maxQueueLength = new AtomicInteger();
+
+    int enqueue() {
+        int queued = queueLength.getAndIncrement();
+        if (queued > maxQueueLength.get()) {
+            maxQueueLength.accumulateAndGet(queued, Math::max);
+        }
+        return queued;
+    }
+
+    void acquired(int queued, long waitNanos) {
+        acquisitions.increment();
+        totalWaitNanos.add(waitNanos);
+        totalQueueLength.add(queued);
+        if (waitNanos > maxWaitNanos.get()) {
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+    }
+
+    void released() {
+        queueLength.decrementAndGet();
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(acquisitions.sum(), totalWaitNanos.sum(), maxWaitNanos.get(),
+          totalQueueLength.sum(), maxQueueLength.get(), queueLength.get());
+    }
+
+    public static class Snapshot {
+        private final long acquisitions;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long totalQueueLength;
+        private final int maxQueueLength;
+        private final int currentQueueLength;
+
+        Snapshot(long acquisitions, long totalWaitNanos, long maxWaitNanos,
+                 long totalQueueLength, int maxQueueLength, int currentQueueLength) {
+            this.acquisitions = acquisitions;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.totalQueueLength = totalQueueLength;
+            this.maxQueueLength = maxQueueLength;
+            this.currentQueueLength = currentQueueLength;
+        }
+
+        public long getAcquisitions() {
+            return acquisitions;
+        }
+
+        public long getTotalWaitNanos() {
+            return totalWaitNanos;
+        }
+
+        public double getAverageWaitNanos() {
+            return acquisitions == 0 ? 0 : (double) totalWaitNanos / acquisitions;
+        }
+
+        public long getMaxWaitNanos() {
+            return maxWaitNanos;
+        }
+
+        public double getAverageQueueLength() {
+            return acquisitions == 0 ? 0 : (double) totalQueueLength / acquisitions;
+        }
+
+        public int getMaxQueueLength() {
+            return maxQueueLength;
+        }
+
+        public int getCurrentQueueLength() {
+            return currentQueueLength;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("acquisitions=%d, avgWait=%.0fns, maxWait=%dns, avgQueue=%.2f, maxQueue=%d",
+              acquisitions, getAverageWaitNanos(), maxWaitNanos, getAverageQueueLength(), maxQueueLength);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.locks;
+
+/**
+ * Factory for the available {@link LockStrategy} implementations. None of them records metrics; wrap one with
+ * {@link #metered(LockStrategy)} for that. Only the fair and unfair locks are reentrant. The TTAS and MCS locks never
+ * park; they only yield now and then, so they pay off only while the contending threads do not outnumber the cores.
+ */
+public final class LockStrategies {
+
+    private LockStrategies() {
+    }
+
+    public static LockStrategy fair() {
+        return new ReentrantLockStrategy(true);
+    }
+
+    public static LockStrategy unfair() {
+        return new ReentrantLockStrategy(false);
+    }
+
+    public static LockStrategy ttasSpin() {
+        return new TtasSpinLock();
+    }
+
+    public static LockStrategy spinThenPark() {
+        return spinThenPark(100);
+    }
+
+    public static LockStrategy spinThenPark(int spinLimit) {
+        return new SpinThenParkLock(spinLimit);
+    }
+
+    public static LockStrategy mcs() {
+        return new McsLock();
+    }
+
+    public static MeteredLockStrategy metered(LockStrategy lockStrategy) {
+        return new MeteredLockStrategy(lockStrategy);
+    }
+}
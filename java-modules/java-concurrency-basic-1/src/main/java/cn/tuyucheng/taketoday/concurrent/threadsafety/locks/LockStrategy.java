@@ -0,0 +1,8 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.locks;
+
+public interface LockStrategy {
+
+    void lock();
+
+    void unlock();
+}
@@ -0,0 +1,44 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.locks;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+class McsLock implements LockStrategy {
+    private final AtomicReference<Node> tail = new AtomicReference<>();
+    private final ThreadLocal<Node> myNode = ThreadLocal.withInitial(Node::new);
+
+    @Override
+    public void lock() {
+        Node node = myNode.get();
+        node.next = null;
+        node.locked = true;
+        Node predecessor = tail.getAndSet(node);
+        if (predecessor != null) {
+            predecessor.next = node;
+            // each waiter spins on its own node, so a release only touches the successor's cache line
+            int spins = 0;
+            while (node.locked) {
+                Backoff.spinWait(++spins);
+            }
+        }
+    }
+
+    @Override
+    public void unlock() {
+        Node node = myNode.get();
+        if (node.next == null) {
+            if (tail.compareAndSet(node, null)) {
+                return;
+            }
+            // a successor swapped itself into the tail but has not linked to us yet
+            while (node.next == null) {
+                Thread.onSpinWait();
+            }
+        }
+        node.next.locked = false;
+    }
+
+    private static class Node {
+        private volatile boolean locked;
+        private volatile Node next;
+    }
+}
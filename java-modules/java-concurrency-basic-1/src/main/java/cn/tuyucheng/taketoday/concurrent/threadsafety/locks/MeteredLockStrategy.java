@@ -0,0 +1,32 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.locks;
+
+/**
+ * Records {@link LockMetrics} around another lock. Every acquisition costs a shared counter update and two
+ * {@link System#nanoTime()} calls, so it is meant for diagnosing a lock, not for the default path.
+ */
+public class MeteredLockStrategy implements LockStrategy {
+    private final LockStrategy delegate;
+    private final LockMetrics metrics = new LockMetrics();
+
+    public MeteredLockStrategy(LockStrategy delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void lock() {
+        int queued = metrics.enqueue();
+        long start = System.nanoTime();
+        delegate.lock();
+        metrics.acquired(queued, System.nanoTime() - start);
+    }
+
+    @Override
+    public void unlock() {
+        delegate.unlock();
+        metrics.released();
+    }
+
+    public LockMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,21 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.locks;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+class ReentrantLockStrategy implements LockStrategy {
+    private final ReentrantLock reLock;
+
+    ReentrantLockStrategy(boolean fair) {
+        this.reLock = new ReentrantLock(fair);
+    }
+
+    @Override
+    public void lock() {
+        reLock.lock();
+    }
+
+    @Override
+    public void unlock() {
+        reLock.unlock();
+    }
+}
@@ -0,0 +1,56 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.locks;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+class SpinThenParkLock implements LockStrategy {
+    private final AtomicBoolean locked = new AtomicBoolean();
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+    private final int spinLimit;
+
+    SpinThenParkLock(int spinLimit) {
+        this.spinLimit = spinLimit;
+    }
+
+    @Override
+    public void lock() {
+        for (int spins = 0; spins < spinLimit; spins++) {
+            if (tryLock()) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        Thread current = Thread.currentThread();
+        boolean interrupted = false;
+        waiters.add(current);
+        try {
+            // registered before this check, so a release that happens after it will see us and unpark us
+            while (!tryLock()) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            waiters.remove(current);
+        }
+        if (interrupted) {
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public void unlock() {
+        locked.set(false);
+        Thread next = waiters.peek();
+        if (next != null) {
+            LockSupport.unpark(next);
+        }
+    }
+
+    private boolean tryLock() {
+        return !locked.get() && locked.compareAndSet(false, true);
+    }
+}
@@ -0,0 +1,26 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.locks;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class TtasSpinLock implements LockStrategy {
+    private final AtomicBoolean locked = new AtomicBoolean();
+
+    @Override
+    public void lock() {
+        int spins = 0;
+        while (true) {
+            // spin on a plain read so waiters share the cache line instead of bouncing it with failed CASes
+            while (locked.get()) {
+                Backoff.spinWait(++spins);
+            }
+            if (!locked.getAndSet(true)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void unlock() {
+        locked.set(false);
+    }
+}
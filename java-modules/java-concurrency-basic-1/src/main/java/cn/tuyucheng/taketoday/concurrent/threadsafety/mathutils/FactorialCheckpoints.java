@@ -0,0 +1,121 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.mathutils;
+
+import java.math.BigInteger;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps previously computed factorials so that n! only multiplies the factors between the closest cached checkpoint
+ * below n and n itself. The cached values are kept within a memory budget. When it is exceeded, checkpoints are evicted
+ * in GreedyDual-Size order: each checkpoint gets the priority {@code L + 1 / bitLength}, where L is the priority of the
+ * last checkpoint taken off the queue, and the lowest priority goes first. Big checkpoints therefore go before small
+ * ones, and a checkpoint that was used since it was queued gets a second chance with a fresh priority, so rarely used
+ * ones go before frequently used ones.
+ */
+public class FactorialCheckpoints {
+    private static final long ENTRY_OVERHEAD_BYTES = 64;
+
+    private final ConcurrentSkipListMap<Integer, Checkpoint> checkpoints = new ConcurrentSkipListMap<>();
+    private final PriorityQueue<Checkpoint> evictionOrder =
+      new PriorityQueue<>(Comparator.comparingDouble((Checkpoint checkpoint) -> checkpoint.priority));
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final long budgetBytes;
+    private double inflation;
+
+    public FactorialCheckpoints(long budgetBytes) {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException("Budget must be positive: " + budgetBytes);
+        }
+        this.budgetBytes = budgetBytes;
+    }
+
+    public BigInteger factorial(int number) {
+        if (number < 2) {
+            return BigInteger.ONE;
+        }
+        Map.Entry<Integer, Checkpoint> floor = checkpoints.floorEntry(number);
+        BigInteger base = BigInteger.ONE;
+        int from = 2;
+        if (floor != null) {
+            Checkpoint checkpoint = floor.getValue();
+            if (!checkpoint.accessed) {
+                // read before writing so that hits on a hot checkpoint don't keep invalidating its cache line
+                checkpoint.accessed = true;
+            }
+            if (floor.getKey() == number) {
+                return checkpoint.value;
+            }
+            base = checkpoint.value;
+            from = floor.getKey() + 1;
+        }
+        BigInteger result = base.multiply(MathUtils.product(from, number));
+        store(number, result);
+        return result;
+    }
+
+    public int size() {
+        return checkpoints.size();
+    }
+
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    private void store(int number, BigInteger value) {
+        Checkpoint checkpoint = new Checkpoint(number, value);
+        if (checkpoint.bytes > budgetBytes) {
+            return;
+        }
+        synchronized (this) {
+            if (checkpoints.putIfAbsent(number, checkpoint) != null) {
+                return;
+            }
+            enqueue(checkpoint);
+            if (usedBytes.addAndGet(checkpoint.bytes) > budgetBytes) {
+                evict();
+            }
+        }
+    }
+
+    private void enqueue(Checkpoint checkpoint) {
+        checkpoint.priority = inflation + 1.0 / checkpoint.value.bitLength();
+        evictionOrder.add(checkpoint);
+    }
+
+    private void evict() {
+        // concurrent hits may keep setting the flag; after one full round everything is evicted in queue order
+        int secondChances = evictionOrder.size();
+        while (usedBytes.get() > budgetBytes) {
+            Checkpoint victim = evictionOrder.poll();
+            if (victim == null) {
+                return;
+            }
+            inflation = victim.priority;
+            if (victim.accessed && secondChances-- > 0) {
+                victim.accessed = false;
+                enqueue(victim);
+                continue;
+            }
+            checkpoints.remove(victim.number, victim);
+            usedBytes.addAndGet(-victim.bytes);
+        }
+    }
+
+    private static class Checkpoint {
+        private final int number;
+        private final BigInteger value;
+        private final long bytes;
+        private volatile boolean accessed;
+        // guarded by the FactorialCheckpoints monitor, only changed while not in the eviction queue
+        private double priority;
+
+        Checkpoint(int number, BigInteger value) {
+            this.number = number;
+            this.value = value;
+            this.bytes = value.bitLength() / Byte.SIZE + ENTRY_OVERHEAD_BYTES;
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package cn.tuyucheng.taketoday.concurrent.threadsafety.mathutils;
 
+import java.io.Serial;
 import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class MathUtils {
+    private static final int SEQUENTIAL_LEAF_SIZE = 32;
+    private static final int PARALLEL_THRESHOLD = 4096;
 
     public static BigInteger factorial(int number) {
         BigInteger f = new BigInteger("1");
@@ -10,4 +15,74 @@ public class MathUtils {
             f = f.multiply(BigInteger.valueOf(i));
         return f;
     }
-}
\ No newline at end of file
+
+    public static BigInteger parallelFactorial(int number) {
+        return parallelFactorial(number, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multiplies 2..number as a balanced product tree, so the big multiplications are between operands of similar size
+     * (where BigInteger switches to Karatsuba and Toom-Cook), with independent subtrees computed in parallel.
+     */
+    public static BigInteger parallelFactorial(int number, ForkJoinPool pool) {
+        return number < 2 ? BigInteger.ONE : pool.invoke(new ProductTask(2, number));
+    }
+
+    /**
+     * @return the product of all integers in [from, to], or one if the range is empty
+     */
+    public static BigInteger product(int from, int to) {
+        if (from < 1 && from <= to) {
+            throw new IllegalArgumentException("Factors must be positive: " + from);
+        }
+        return productOfPositive(from, to);
+    }
+
+    private static BigInteger productOfPositive(int from, int to) {
+        if (to - from < SEQUENTIAL_LEAF_SIZE) {
+            return leafProduct(from, to);
+        }
+        int mid = (from + to) >>> 1;
+        return productOfPositive(from, mid).multiply(productOfPositive(mid + 1, to));
+    }
+
+    private static BigInteger leafProduct(int from, int to) {
+        BigInteger result = BigInteger.ONE;
+        long accumulator = 1;
+        for (long i = from; i <= to; i++) {
+            // pack as many factors as fit into a long before touching BigInteger
+            if (accumulator > Long.MAX_VALUE / i) {
+                result = result.multiply(BigInteger.valueOf(accumulator));
+                accumulator = i;
+            } else {
+                accumulator *= i;
+            }
+        }
+        return result.multiply(BigInteger.valueOf(accumulator));
+    }
+
+    private static class ProductTask extends RecursiveTask<BigInteger> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        ProductTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BigInteger compute() {
+            if (to - from < PARALLEL_THRESHOLD) {
+                return productOfPositive(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            ProductTask left = new ProductTask(from, mid);
+            left.fork();
+            BigInteger right = new ProductTask(mid + 1, to).compute();
+            return left.join().multiply(right);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.services;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counter whose increments only touch memory confined to the incrementing thread until that thread flushes them to the
+ * shared total, either after {@code flushThreshold} increments or on the first increment once {@code flushInterval}
+ * has passed since its last flush.
+ * <p>
+ * Staleness bound: {@link #getCounter()} lags the true count by at most {@code flushThreshold - 1} increments per live
+ * thread. The interval bounds the lag in time only for threads that keep incrementing: a thread that goes idle keeps
+ * its buffer until it increments again, calls {@link #flush()} or terminates. The buffer of a terminated thread is
+ * added to the total by the next {@link #getCounter()} or {@link #flush()} call.
+ */
+public class BufferedCounter {
+    private final AtomicInteger total = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Buffer> buffers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Buffer> localBuffer = ThreadLocal.withInitial(this::register);
+    private final int flushThreshold;
+    private final long flushIntervalNanos;
+
+    public BufferedCounter() {
+        this(100, Duration.ofMillis(100));
+    }
+
+    /**
+     * @param flushInterval maximum age of a buffered increment at the time of the next increment, or {@link Duration#ZERO}
+     *                      to flush on the threshold only and keep {@link System#nanoTime()} off the increment path
+     */
+    public BufferedCounter(int flushThreshold, Duration flushInterval) {
+        if (flushThreshold < 1 || flushInterval.isNegative()) {
+            throw new IllegalArgumentException("Flush threshold must be positive and flush interval must not be negative");
+        }
+        this.flushThreshold = flushThreshold;
+        this.flushIntervalNanos = flushInterval.toNanos();
+    }
+
+    public void incrementCounter() {
+        Buffer buffer = localBuffer.get();
+        int pending = buffer.pending + 1;
+        if (pending >= flushThreshold) {
+            flush(buffer, pending);
+        } else if (flushIntervalNanos > 0 && System.nanoTime() - buffer.lastFlushNanos >= flushIntervalNanos) {
+            flush(buffer, pending);
+        } else {
+            buffer.pending = pending;
+        }
+    }
+
+    /**
+     * Flushes the calling thread's buffer and the buffers left behind by terminated threads.
+     */
+    public void flush() {
+        Buffer buffer = localBuffer.get();
+        flush(buffer, buffer.pending);
+        reclaimTerminated();
+    }
+
+    public int getCounter() {
+        reclaimTerminated();
+        return total.get();
+    }
+
+    private void flush(Buffer buffer, int pending) {
+        if (pending != 0) {
+            total.addAndGet(pending);
+        }
+        buffer.pending = 0;
+        if (flushIntervalNanos > 0) {
+            buffer.lastFlushNanos = System.nanoTime();
+        }
+    }
+
+    private void reclaimTerminated() {
+        for (Buffer buffer : buffers) {
+            // isAlive() == false makes every write of the terminated owner visible here;
+            // remove() succeeds for one caller only, so the buffer is never counted twice
+            if (!buffer.owner.isAlive() && buffers.remove(buffer) && buffer.pending != 0) {
+                total.addAndGet(buffer.pending);
+            }
+        }
+    }
+
+    private Buffer register() {
+        reclaimTerminated();
+        Buffer buffer = new Buffer(Thread.currentThread());
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private static class Buffer {
+        private final Thread owner;
+        private int pending;
+        private long lastFlushNanos = System.nanoTime();
+
+        Buffer(Thread owner) {
+            this.owner = owner;
+        }
+    }
+}
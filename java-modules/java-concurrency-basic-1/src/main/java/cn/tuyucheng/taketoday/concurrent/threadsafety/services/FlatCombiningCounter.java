@@ -0,0 +1,17 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.services;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.locks.FlatCombiner;
+
+public class FlatCombiningCounter {
+    private final FlatCombiner<int[]> combiner = new FlatCombiner<>(new int[1]);
+
+    public FlatCombiningCounter() {}
+
+    public void incrementCounter() {
+        combiner.execute(counter -> counter[0] += 1);
+    }
+
+    public int getCounter() {
+        return combiner.apply(counter -> counter[0]);
+    }
+}
@@ -0,0 +1,73 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.services;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records latencies from any number of threads into per-thread {@link LatencyHistogram} buffers. {@link #record(long)}
+ * only touches memory owned by the calling thread: no lock and no shared CAS. {@link #getIntervalHistogram()} swaps
+ * every thread's active buffer for an empty one and merges what was recorded since the previous call.
+ */
+public class LatencyRecorder {
+    private final ConcurrentLinkedQueue<WriterBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<WriterBuffer> localBuffer = ThreadLocal.withInitial(this::register);
+
+    public void record(long nanos) {
+        WriterBuffer buffer = localBuffer.get();
+        // odd while a write is in progress; the volatile stores order the write against the reader's swap
+        buffer.sequence++;
+        try {
+            buffer.active.record(nanos);
+        } finally {
+            buffer.sequence++;
+        }
+    }
+
+    public synchronized LatencyHistogram getIntervalHistogram() {
+        LatencyHistogram interval = new LatencyHistogram();
+        Iterator<WriterBuffer> iterator = buffers.iterator();
+        while (iterator.hasNext()) {
+            WriterBuffer buffer = iterator.next();
+            boolean ownerAlive = buffer.owner.isAlive();
+            LatencyHistogram recorded = buffer.swap();
+            interval.add(recorded);
+            if (!ownerAlive) {
+                // everything the dead thread recorded has been harvested above
+                iterator.remove();
+            }
+        }
+        return interval;
+    }
+
+    private WriterBuffer register() {
+        WriterBuffer buffer = new WriterBuffer(Thread.currentThread());
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private static class WriterBuffer {
+        private final Thread owner;
+        private volatile LatencyHistogram active = new LatencyHistogram();
+        private LatencyHistogram inactive = new LatencyHistogram();
+        private volatile long sequence;
+
+        WriterBuffer(Thread owner) {
+            this.owner = owner;
+        }
+
+        LatencyHistogram swap() {
+            LatencyHistogram recorded = active;
+            inactive.reset();
+            active = inactive;
+            long observed = sequence;
+            if ((observed & 1) != 0) {
+                // the writer may still be recording into the old buffer: wait until that write completes
+                while (sequence == observed) {
+                    Thread.onSpinWait();
+                }
+            }
+            inactive = recorded;
+            return recorded;
+        }
+    }
+}
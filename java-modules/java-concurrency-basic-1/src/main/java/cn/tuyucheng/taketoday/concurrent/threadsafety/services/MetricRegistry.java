@@ -0,0 +1,155 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.services;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of named counters stored in consecutive slots of an {@link OffHeapCounterTable}. A name is looked up once,
+ * in {@link #counter(String)}; the returned {@link Handle} knows its slot, so incrementing through it involves no hashing
+ * and no map access.
+ */
+public class MetricRegistry {
+    private static final int MAX_PASSES = 4;
+
+    private final OffHeapCounterTable table;
+    private final String[] names;
+    private final Map<String, Handle> handles = new ConcurrentHashMap<>();
+    private volatile int size;
+
+    public MetricRegistry(int capacity) {
+        this(OffHeapCounterTable.allocateDirect(capacity));
+    }
+
+    public MetricRegistry(OffHeapCounterTable table) {
+        this.table = table;
+        this.names = new String[table.capacity()];
+    }
+
+    public Handle counter(String name) {
+        Handle handle = handles.get(name);
+        return handle != null ? handle : register(name);
+    }
+
+    /**
+     * Copies every registered counter, repeating the pass until two consecutive passes read the same values. Counters
+     * only grow, since {@link Handle#add(long)} rejects negative deltas, so two equal passes mean nothing changed in
+     * between and the copy is a consistent cut. When
+     * the counters keep changing for {@code MAX_PASSES} passes, the last pass is returned and
+     * {@link Snapshot#isConsistent()} is false: each value is then read atomically, but increments that race with the
+     * pass may be reflected for some counters and not for others. Increments never wait for a snapshot.
+     */
+    public Snapshot snapshot() {
+        int count = size;
+        long[] values = read(count);
+        for (int pass = 1; pass < MAX_PASSES; pass++) {
+            long[] again = read(count);
+            if (Arrays.equals(values, again)) {
+                return new Snapshot(Arrays.copyOf(names, count), values, true);
+            }
+            values = again;
+        }
+        return new Snapshot(Arrays.copyOf(names, count), values, false);
+    }
+
+    private long[] read(int count) {
+        long[] values = new long[count];
+        for (int slot = 0; slot < count; slot++) {
+            values[slot] = table.get(slot);
+        }
+        return values;
+    }
+
+    private synchronized Handle register(String name) {
+        Handle handle = handles.get(name);
+        if (handle != null) {
+            return handle;
+        }
+        int slot = size;
+        if (slot == names.length) {
+            throw new IllegalStateException("Metric registry is full, cannot register " + name);
+        }
+        names[slot] = name;
+        handle = new Handle(name, slot, table);
+        handles.put(name, handle);
+        // publishes names[slot] to snapshot()
+        size = slot + 1;
+        return handle;
+    }
+
+    public static class Handle {
+        private final String name;
+        private final int slot;
+        private final OffHeapCounterTable table;
+
+        private Handle(String name, int slot, OffHeapCounterTable table) {
+            this.name = name;
+            this.slot = slot;
+            this.table = table;
+        }
+
+        public void increment() {
+            table.getAndAdd(slot, 1);
+        }
+
+        /**
+         * @throws IllegalArgumentException if {@code delta} is negative: a decrement could cancel an increment between
+         *                                  two snapshot passes and make an inconsistent copy look consistent
+         */
+        public void add(long delta) {
+            if (delta < 0) {
+                throw new IllegalArgumentException("Counters only grow, delta must not be negative: " + delta);
+            }
+            table.getAndAdd(slot, delta);
+        }
+
+        public long get() {
+            return table.get(slot);
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public static class Snapshot {
+        private final String[] names;
+        private final long[] values;
+        private final boolean consistent;
+
+        private Snapshot(String[] names, long[] values, boolean consistent) {
+            this.names = names;
+            this.values = values;
+            this.consistent = consistent;
+        }
+
+        public int size() {
+            return names.length;
+        }
+
+        public String getName(int index) {
+            return names[index];
+        }
+
+        public long getValue(int index) {
+            return values[index];
+        }
+
+        /**
+         * @return whether the values were read as one consistent cut, see {@link MetricRegistry#snapshot()}
+         */
+        public boolean isConsistent() {
+            return consistent;
+        }
+
+        public Map<String, Long> asMap() {
+            Map<String, Long> map = new LinkedHashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                map.put(names[i], values[i]);
+            }
+            return Collections.unmodifiableMap(map);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.services;
+
+import java.util.concurrent.locks.StampedLock;
+
+public class MutableStateHolder {
+    private String state;
+    private long version;
+    private final StampedLock lock = new StampedLock();
+
+    public MutableStateHolder(String state) {
+        this.state = state;
+    }
+
+    public void setState(String state) {
+        long stamp = lock.writeLock();
+        try {
+            this.state = state;
+            version += 1;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public String getState() {
+        return getSnapshot().getState();
+    }
+
+    public long getVersion() {
+        return getSnapshot().getVersion();
+    }
+
+    /**
+     * Reads without writing shared memory: the optimistic read is retried until no write overlapped it, instead of
+     * falling back to the read lock, whose acquisition would CAS the lock word every reader shares.
+     */
+    public Snapshot getSnapshot() {
+        while (true) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                String currentState = state;
+                long currentVersion = version;
+                if (lock.validate(stamp)) {
+                    return new Snapshot(currentState, currentVersion);
+                }
+            }
+            // a writer holds the lock; its critical section is two stores, so waiting it out is short
+            Thread.onSpinWait();
+        }
+    }
+
+    public static class Snapshot {
+        private final String state;
+        private final long version;
+
+        public Snapshot(String state, long version) {
+            this.state = state;
+            this.version = version;
+        }
+
+        public String getState() {
+            return state;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+}
@@ -1,22 +1,50 @@
 package cn.tuyucheng.taketoday.concurrent.threadsafety.services;
 
+import cn.tuyucheng.taketoday.concurrent.threadsafety.locks.LockStrategy;
+
 public class ObjectLockCounter {
     private int counter;
     private final Object lock = new Object();
+    private final LockStrategy lockStrategy;
 
     public ObjectLockCounter() {
+        this(null);
+    }
+
+    /**
+     * @param lockStrategy the lock guarding the counter, or {@code null} to use the intrinsic lock of a private object
+     */
+    public ObjectLockCounter(LockStrategy lockStrategy) {
         this.counter = 0;
+        this.lockStrategy = lockStrategy;
     }
 
     public void incrementCounter() {
-        synchronized (lock) {
+        if (lockStrategy == null) {
+            synchronized (lock) {
+                counter += 1;
+            }
+            return;
+        }
+        lockStrategy.lock();
+        try {
             counter += 1;
+        } finally {
+            lockStrategy.unlock();
         }
     }
 
     public int getCounter() {
-        synchronized (lock) {
+        if (lockStrategy == null) {
+            synchronized (lock) {
+                return counter;
+            }
+        }
+        lockStrategy.lock();
+        try {
             return counter;
+        } finally {
+            lockStrategy.unlock();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.services;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Fixed number of {@code long} counters, addressed by an int id, stored outside the heap at 8 bytes each. A file-backed
+ * table lives in the OS page cache, so its counts survive a JVM restart and are visible to every process that maps the
+ * same file. Counters are stored in the platform's native byte order.
+ */
+public class OffHeapCounterTable {
+    private static final VarHandle COUNTS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - Long.BYTES) / Long.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+
+    private OffHeapCounterTable(ByteBuffer buffer, int capacity) {
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+
+    public static OffHeapCounterTable allocateDirect(int capacity) {
+        checkCapacity(capacity);
+        // atomic access through the VarHandle requires 8-byte aligned slots
+        ByteBuffer buffer = ByteBuffer.allocateDirect(capacity * Long.BYTES + Long.BYTES - 1).alignedSlice(Long.BYTES);
+        return new OffHeapCounterTable(buffer, capacity);
+    }
+
+    public static OffHeapCounterTable mapFile(Path path, int capacity) throws IOException {
+        checkCapacity(capacity);
+        long size = (long) capacity * Long.BYTES;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() != 0 && channel.size() != size) {
+                throw new IllegalStateException("File " + path + " holds " + channel.size() / Long.BYTES + " counters, expected " + capacity);
+            }
+            // the mapping stays valid after the channel is closed
+            return new OffHeapCounterTable(channel.map(FileChannel.MapMode.READ_WRITE, 0, size), capacity);
+        }
+    }
+
+    public static OffHeapCounterTable mapReadOnly(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % Long.BYTES != 0 || size / Long.BYTES > MAX_CAPACITY) {
+                throw new IllegalStateException("File " + path + " is not a counter table");
+            }
+            return new OffHeapCounterTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), (int) (size / Long.BYTES));
+        }
+    }
+
+    public long get(int id) {
+        return (long) COUNTS.getVolatile(buffer, offset(id));
+    }
+
+    public long getAndAdd(int id, long delta) {
+        return (long) COUNTS.getAndAdd(buffer, offset(id), delta);
+    }
+
+    public void increment(int id) {
+        getAndAdd(id, 1);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Writes the counts of a file-backed table through to the storage device; without it they are only guaranteed to
+     * survive a process restart, not an OS crash.
+     */
+    public void force() {
+        if (buffer instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) buffer).force();
+        }
+    }
+
+    private int offset(int id) {
+        return Objects.checkIndex(id, capacity) * Long.BYTES;
+    }
+
+    private static void checkCapacity(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY + ": " + capacity);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Read-copy-update holder for an immutable value such as {@link StateHolder} or {@link MessageService}. Readers only
+ * perform a volatile read. Writers enqueue a mutation of a mutable draft {@code D}; whichever writer holds the combining
+ * lock thaws the current value once, applies every queued mutation to the draft, freezes it and publishes the result as
+ * the next version. Under contention that is one copy and one publication per batch instead of one per writer.
+ * <p>
+ * A mutation that throws fails only its own {@link #update(Consumer)} call. Whatever it changed in the draft before
+ * throwing is discarded: the rest of the batch is applied again to a freshly thawed draft, so a mutation may run more
+ * than once and must not have effects outside the draft. If thaw or freeze throws, every update of the batch fails with
+ * that exception and nothing is published.
+ */
+public class RcuPublisher<T, D> {
+    private static final int MAX_BATCH = 1024;
+
+    private final Function<? super T, ? extends D> thaw;
+    private final Function<? super D, ? extends T> freeze;
+    private final ConcurrentLinkedQueue<PendingUpdate<D>> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock combinerLock = new ReentrantLock();
+    private final Object versionMonitor = new Object();
+    private volatile Versioned<T> current;
+    private volatile int versionWaiters;
+
+    public RcuPublisher(T initial, Function<? super T, ? extends D> thaw, Function<? super D, ? extends T> freeze) {
+        this.thaw = thaw;
+        this.freeze = freeze;
+        this.current = new Versioned<>(initial, 0);
+    }
+
+    public T get() {
+        return current.value;
+    }
+
+    public long getVersion() {
+        return current.version;
+    }
+
+    /**
+     * @return the version in which the mutation was first published
+     */
+    public long update(Consumer<? super D> mutation) {
+        PendingUpdate<D> update = new PendingUpdate<>(mutation);
+        pending.add(update);
+        while (true) {
+            combinerLock.lock();
+            try {
+                // another writer may have applied our update while we were waiting for the lock
+                if (update.done) {
+                    break;
+                }
+                combine();
+            } finally {
+                combinerLock.unlock();
+            }
+        }
+        Throwable failure = update.failure;
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return update.version;
+    }
+
+    public void awaitVersion(long version) throws InterruptedException {
+        synchronized (versionMonitor) {
+            versionWaiters++;
+            try {
+                while (current.version < version) {
+                    versionMonitor.wait();
+                }
+            } finally {
+                versionWaiters--;
+            }
+        }
+    }
+
+    public boolean awaitVersion(long version, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (versionMonitor) {
+            versionWaiters++;
+            try {
+                while (current.version < version) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    versionMonitor.wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+                }
+                return true;
+            } finally {
+                versionWaiters--;
+            }
+        }
+    }
+
+    private void combine() {
+        List<PendingUpdate<D>> batch = new ArrayList<>();
+        PendingUpdate<D> update;
+        while (batch.size() < MAX_BATCH && (update = pending.poll()) != null) {
+            batch.add(update);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Versioned<T> previous = current;
+        Versioned<T> next = previous;
+        try {
+            next = apply(previous, batch);
+        } catch (RuntimeException | Error e) {
+            // thaw or freeze failed: the whole batch fails and nothing is published
+            for (PendingUpdate<D> each : batch) {
+                if (each.failure == null) {
+                    each.failure = e;
+                }
+            }
+        } finally {
+            current = next;
+            // every writer of the batch must be released, or it would wait for an update no one applies
+            for (PendingUpdate<D> each : batch) {
+                each.version = next.version;
+                each.done = true;
+            }
+        }
+
+        if (next != previous && versionWaiters > 0) {
+            synchronized (versionMonitor) {
+                versionMonitor.notifyAll();
+            }
+        }
+    }
+
+    private Versioned<T> apply(Versioned<T> previous, List<PendingUpdate<D>> batch) {
+        while (true) {
+            D draft = thaw.apply(previous.value);
+            boolean changed = false;
+            boolean failed = false;
+            for (PendingUpdate<D> each : batch) {
+                if (each.failure != null) {
+                    continue;
+                }
+                try {
+                    each.mutation.accept(draft);
+                    changed = true;
+                } catch (RuntimeException | Error e) {
+                    each.failure = e;
+                    failed = true;
+                    break;
+                }
+            }
+            if (!failed) {
+                return changed ? new Versioned<>(freeze.apply(draft), previous.version + 1) : previous;
+            }
+            // the failed mutation may have changed the draft before throwing: start over without it
+        }
+    }
+
+    private static class Versioned<T> {
+        private final T value;
+        private final long version;
+
+        Versioned(T value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+
+    private static class PendingUpdate<D> {
+        private final Consumer<? super D> mutation;
+        // written and read under combinerLock
+        private boolean done;
+        private long version;
+        private Throwable failure;
+
+        PendingUpdate(Consumer<? super D> mutation) {
+            this.mutation = mutation;
+        }
+    }
+}
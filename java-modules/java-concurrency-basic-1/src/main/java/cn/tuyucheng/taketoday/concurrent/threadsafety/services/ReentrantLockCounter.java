@@ -1,13 +1,19 @@
 package cn.tuyucheng.taketoday.concurrent.threadsafety.services;
 
-import java.util.concurrent.locks.ReentrantLock;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.locks.LockStrategies;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.locks.LockStrategy;
 
 public class ReentrantLockCounter {
     private int counter;
-    private final ReentrantLock reLock = new ReentrantLock(true);
+    private final LockStrategy reLock;
 
     public ReentrantLockCounter() {
+        this(LockStrategies.fair());
+    }
+
+    public ReentrantLockCounter(LockStrategy lockStrategy) {
         this.counter = 0;
+        this.reLock = lockStrategy;
     }
 
     public void incrementCounter() {
@@ -22,4 +28,4 @@ public class ReentrantLockCounter {
     public int getCounter() {
         return counter;
     }
-}
\ No newline at end of file
+}
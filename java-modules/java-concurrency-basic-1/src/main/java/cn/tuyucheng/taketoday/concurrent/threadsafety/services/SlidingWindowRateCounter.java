@@ -0,0 +1,115 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.services;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts events in a ring of time buckets. Each bucket packs the tick it belongs to (high 32 bits) with its count
+ * (low 32 bits), so an increment is a single {@code getAndIncrement} and a bucket is claimed for a new tick with one CAS,
+ * without ever resetting the count separately from the tick. Only the low 32 bits of the tick are stored and they are
+ * only compared for equality, so the counter keeps working after 2^32 ticks; a stale bucket can only be mistaken for
+ * a current one if nothing was counted in it for an exact multiple of 2^32 ticks.
+ */
+public class SlidingWindowRateCounter {
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+    private final AtomicLongArray buckets;
+    private final long resolutionNanos;
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+
+    public SlidingWindowRateCounter() {
+        this(Duration.ofMillis(100), Duration.ofSeconds(60));
+    }
+
+    public SlidingWindowRateCounter(Duration resolution, Duration maxWindow) {
+        this(resolution, maxWindow, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock source of {@link System#nanoTime()}-like timestamps
+     */
+    public SlidingWindowRateCounter(Duration resolution, Duration maxWindow, LongSupplier nanoClock) {
+        if (resolution.isNegative() || resolution.isZero() || maxWindow.compareTo(resolution) < 0) {
+            throw new IllegalArgumentException("Resolution must be positive and not larger than the max window");
+        }
+        this.resolutionNanos = resolution.toNanos();
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+        // one extra bucket keeps the partially filled current bucket from overwriting the oldest one in the window
+        this.buckets = new AtomicLongArray((int) ((maxWindow.toNanos() + resolutionNanos - 1) / resolutionNanos) + 1);
+    }
+
+    public void incrementCounter() {
+        long tick = currentTick(nanoClock.getAsLong());
+        int index = (int) (tick % buckets.length());
+        long previous = buckets.getAndIncrement(index);
+        if (tickOf(previous) != stamp(tick)) {
+            rollover(index, tick);
+        }
+    }
+
+    public long getCount(Duration window) {
+        return count(currentTick(nanoClock.getAsLong()), bucketsIn(window));
+    }
+
+    public double ratePerSecond(Duration window) {
+        int windowBuckets = bucketsIn(window);
+        long elapsed = nanoClock.getAsLong() - startNanos;
+        // the current bucket is only partially filled, so it contributes only the time elapsed in it
+        long covered = Math.min((windowBuckets - 1) * resolutionNanos + elapsed % resolutionNanos, elapsed);
+        return covered <= 0 ? 0 : count(elapsed / resolutionNanos, windowBuckets) * 1_000_000_000d / covered;
+    }
+
+    private long count(long tick, int windowBuckets) {
+        long count = 0;
+        for (long t = Math.max(0, tick - windowBuckets + 1); t <= tick; t++) {
+            long bucket = buckets.get((int) (t % buckets.length()));
+            if (tickOf(bucket) == stamp(t)) {
+                count += bucket & COUNT_MASK;
+            }
+        }
+        return count;
+    }
+
+    private void rollover(int index, long tick) {
+        // our increment landed on a bucket left over from an older tick; claim it for this tick or retry on the winner
+        long stamp = stamp(tick);
+        while (true) {
+            long current = buckets.get(index);
+            long now = currentTick(nanoClock.getAsLong());
+            if (tick < now - Math.floorMod(now - index, buckets.length())) {
+                // we were delayed past a whole ring and our increment already went into the newer tick
+                return;
+            }
+            if (tickOf(current) == stamp) {
+                if (tickOf(buckets.getAndIncrement(index)) == stamp) {
+                    return;
+                }
+            } else if (buckets.compareAndSet(index, current, (stamp << 32) | 1)) {
+                return;
+            }
+        }
+    }
+
+    private int bucketsIn(Duration window) {
+        long count = (window.toNanos() + resolutionNanos - 1) / resolutionNanos;
+        if (count <= 0 || count >= buckets.length()) {
+            throw new IllegalArgumentException("Window must be positive and not larger than the max window");
+        }
+        return (int) count;
+    }
+
+    private long currentTick(long now) {
+        return (now - startNanos) / resolutionNanos;
+    }
+
+    private static long tickOf(long bucket) {
+        return bucket >>> 32;
+    }
+
+    private static long stamp(long tick) {
+        return tick & COUNT_MASK;
+    }
+}
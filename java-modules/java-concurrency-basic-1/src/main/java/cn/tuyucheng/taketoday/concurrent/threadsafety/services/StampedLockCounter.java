@@ -0,0 +1,36 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.services;
+
+import java.util.concurrent.locks.StampedLock;
+
+public class StampedLockCounter {
+    private int counter;
+    private final StampedLock lock = new StampedLock();
+
+    public StampedLockCounter() {
+        this.counter = 0;
+    }
+
+    public void incrementCounter() {
+        long stamp = lock.writeLock();
+        try {
+            counter += 1;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int getCounter() {
+        // optimistic reads don't write to the lock, so readers never contend with each other
+        long stamp = lock.tryOptimisticRead();
+        int current = counter;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                current = counter;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,21 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.services;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class StripedCounter {
+    private final LongAdder counter = new LongAdder();
+
+    public StripedCounter() {}
+
+    public void incrementCounter() {
+        counter.increment();
+    }
+
+    public int getCounter() {
+        return counter.intValue();
+    }
+
+    public int sumThenReset() {
+        return (int) counter.sumThenReset();
+    }
+}
@@ -0,0 +1,59 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety.services;
+
+/**
+ * Records latencies from any number of threads into a fixed number of {@link LatencyHistogram} stripes, each guarded
+ * by its own lock and picked by thread id. Unlike {@link LatencyRecorder}, which keeps two histograms for every thread
+ * that ever recorded, memory stays the same however many threads there are, which matters when threads are created per
+ * task. The price is an uncontended lock per {@link #record(long)} as long as there are about as many busy threads as
+ * stripes.
+ */
+public class StripedLatencyRecorder {
+    private static final int MAX_STRIPES = 64;
+
+    private final LatencyHistogram[] stripes;
+    private final int mask;
+
+    public StripedLatencyRecorder() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param stripeCount rounded up to a power of two, at most {@value #MAX_STRIPES}
+     */
+    public StripedLatencyRecorder(int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stripe count must be positive: " + stripeCount);
+        }
+        int size = 1;
+        while (size < Math.min(stripeCount, MAX_STRIPES)) {
+            size <<= 1;
+        }
+        stripes = new LatencyHistogram[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new LatencyHistogram();
+        }
+        mask = size - 1;
+    }
+
+    public void record(long nanos) {
+        // pool threads get consecutive ids, so they land on different stripes
+        LatencyHistogram stripe = stripes[(int) Thread.currentThread().getId() & mask];
+        synchronized (stripe) {
+            stripe.record(nanos);
+        }
+    }
+
+    /**
+     * @return what was recorded since the previous call, merged from all stripes
+     */
+    public synchronized LatencyHistogram getIntervalHistogram() {
+        LatencyHistogram interval = new LatencyHistogram();
+        for (LatencyHistogram stripe : stripes) {
+            synchronized (stripe) {
+                interval.add(stripe);
+                stripe.reset();
+            }
+        }
+        return interval;
+    }
+}
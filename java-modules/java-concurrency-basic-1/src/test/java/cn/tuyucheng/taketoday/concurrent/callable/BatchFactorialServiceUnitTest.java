@@ -0,0 +1,61 @@
+package cn.tuyucheng.taketoday.concurrent.callable;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.mathutils.MathUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchFactorialServiceUnitTest {
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    public void setup() {
+        executorService = Executors.newFixedThreadPool(2);
+    }
+
+    @Test
+    public void whenBatchSubmitted_ThenEveryDistinctNumberHasItsFactorial() throws Exception {
+        BatchFactorialService service = new BatchFactorialService(executorService, 3);
+        List<Integer> numbers = new ArrayList<>(List.of(0, 1, 5, 5, 13, 20));
+        for (int number = 500; number >= 100; number -= 7) {
+            numbers.add(number);
+        }
+
+        Map<Integer, BigInteger> factorials = service.factorials(numbers);
+
+        assertEquals(numbers.stream().distinct().count(), factorials.size());
+        for (int number : numbers) {
+            assertEquals(MathUtils.factorial(number), factorials.get(number));
+        }
+        assertEquals(new BigInteger("6227020800"), factorials.get(13));
+    }
+
+    @Test
+    public void whenBatchIsEmpty_ThenResultIsEmpty() throws Exception {
+        BatchFactorialService service = new BatchFactorialService(executorService);
+
+        assertTrue(service.factorials(List.of()).isEmpty());
+    }
+
+    @Test
+    public void whenNegativeNumberSubmitted_ThenExceptionIsThrown() {
+        BatchFactorialService service = new BatchFactorialService(executorService);
+
+        assertThrows(IllegalArgumentException.class, () -> service.factorials(List.of(3, -5)));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        executorService.shutdown();
+    }
+}
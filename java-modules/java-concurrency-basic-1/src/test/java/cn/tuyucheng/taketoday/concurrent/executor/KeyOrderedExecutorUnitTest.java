@@ -0,0 +1,158 @@
+package cn.tuyucheng.taketoday.concurrent.executor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KeyOrderedExecutorUnitTest {
+
+    private ExecutorService pool;
+    private KeyOrderedExecutor executor;
+
+    @BeforeEach
+    public void setUp() {
+        pool = Executors.newFixedThreadPool(4);
+        executor = new KeyOrderedExecutor(pool);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void whenTasksShareKey_thenRunSeriallyInSubmissionOrder() throws InterruptedException {
+        int keys = 10;
+        int tasksPerKey = 1000;
+        List<List<Integer>> executed = new ArrayList<>();
+        List<AtomicInteger> running = new ArrayList<>();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(keys * tasksPerKey);
+        for (int key = 0; key < keys; key++) {
+            executed.add(new ArrayList<>());
+            running.add(new AtomicInteger());
+        }
+
+        for (int i = 0; i < tasksPerKey; i++) {
+            for (int key = 0; key < keys; key++) {
+                int k = key;
+                int sequence = i;
+                executor.execute(k, () -> {
+                    if (running.get(k).incrementAndGet() > 1) {
+                        overlaps.incrementAndGet();
+                    }
+                    executed.get(k).add(sequence);
+                    running.get(k).decrementAndGet();
+                    done.countDown();
+                });
+            }
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+        for (int key = 0; key < keys; key++) {
+            for (int i = 0; i < tasksPerKey; i++) {
+                assertEquals(i, executed.get(key).get(i).intValue());
+            }
+        }
+    }
+
+    @Test
+    public void whenKeysDiffer_thenRunInParallelAndQueuesAreReclaimed() throws InterruptedException {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch done = new CountDownLatch(2);
+        Runnable rendezvous = () -> {
+            bothStarted.countDown();
+            try {
+                if (bothStarted.await(5, TimeUnit.SECONDS)) {
+                    done.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        executor.execute("a", rendezvous);
+        executor.execute("b", rendezvous);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0, executor.getActiveKeyCount());
+    }
+
+    @Test
+    public void whenCallersTaskIsRejected_thenOnlyItFailsAndTasksQueuedBehindItRun() throws InterruptedException {
+        CountDownLatch queuedRan = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        KeyOrderedExecutor[] ordered = new KeyOrderedExecutor[1];
+        ordered[0] = new KeyOrderedExecutor(task -> {
+            if (calls.incrementAndGet() == 1) {
+                // another caller queues behind the task before the delegate turns it down
+                ordered[0].execute("k", queuedRan::countDown);
+                throw new RejectedExecutionException("busy");
+            }
+            pool.execute(task);
+        });
+
+        assertThrows(RejectedExecutionException.class, () -> ordered[0].execute("k", () -> {
+        }));
+
+        assertTrue(queuedRan.await(5, TimeUnit.SECONDS));
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0, ordered[0].getActiveKeyCount());
+    }
+
+    @Test
+    public void whenQueuedTasksAreRejected_thenHandedToHandlerInOrder() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        List<Runnable> rejected = new CopyOnWriteArrayList<>();
+        CountDownLatch handled = new CountDownLatch(2);
+        KeyOrderedExecutor rejecting = new KeyOrderedExecutor(task -> {
+            if (calls.incrementAndGet() > 1) {
+                throw new RejectedExecutionException("shut down");
+            }
+            pool.execute(task);
+        }, (key, task, e) -> {
+            rejected.add(task);
+            handled.countDown();
+        });
+        Runnable second = () -> {
+        };
+        Runnable third = () -> {
+        };
+
+        rejecting.execute("k", () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        rejecting.execute("k", second);
+        rejecting.execute("k", third);
+        release.countDown();
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(List.of(second, third), rejected);
+        assertEquals(0, rejecting.getActiveKeyCount());
+    }
+}
@@ -0,0 +1,118 @@
+package cn.tuyucheng.taketoday.concurrent.executorservice;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InstrumentedExecutorServiceUnitTest {
+
+    private static final long TASK_MILLIS = 50;
+
+    @Test
+    public void whenTasksQueueBehindEachOther_thenWaitAndRunTimeAreRecorded() throws Exception {
+        InstrumentedExecutorService executor = new InstrumentedExecutorService(Executors.newSingleThreadExecutor());
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            futures.add(executor.submit(() -> {
+                Thread.sleep(TASK_MILLIS);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        InstrumentedExecutorService.Snapshot snapshot = executor.snapshot();
+        assertEquals(3, snapshot.getCompletedCount());
+        assertEquals(0, snapshot.getActiveCount());
+        assertEquals(0, snapshot.getQueuedCount());
+        assertEquals(3, snapshot.getRunTime().getTotalCount());
+        assertTrue(snapshot.getRunTime().getValueAtPercentile(50) >= TimeUnit.MILLISECONDS.toNanos(TASK_MILLIS) * 9 / 10);
+        // the last task waited for the two before it
+        assertTrue(snapshot.getQueueWait().getMaxValue() >= TimeUnit.MILLISECONDS.toNanos(2 * TASK_MILLIS) * 9 / 10);
+    }
+
+    @Test
+    public void whenDelegateRejects_thenCountedAsRejected() {
+        InstrumentedExecutorService executor = new InstrumentedExecutorService(Executors.newSingleThreadExecutor());
+        executor.shutdown();
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+
+        assertEquals(1, executor.snapshot().getRejectedCount());
+        assertEquals(0, executor.snapshot().getQueuedCount());
+    }
+
+    @Test
+    public void whenShutdownNow_thenQueuedTasksAreReturnedUnwrapped() throws InterruptedException {
+        InstrumentedExecutorService executor = new InstrumentedExecutorService(Executors.newSingleThreadExecutor());
+        CountDownLatch started = new CountDownLatch(1);
+        Runnable waiting = () -> {
+        };
+
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.execute(waiting);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of(waiting), executor.shutdownNow());
+        assertEquals(0, executor.snapshot().getQueuedCount());
+    }
+
+    @Test
+    public void whenRegistered_thenAttributesAreReadableOverJmx() throws Exception {
+        InstrumentedExecutorService executor = new InstrumentedExecutorService(Executors.newSingleThreadExecutor());
+        executor.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+
+        ObjectName name = executor.registerMBean("unit-test");
+        try {
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "CompletedCount"));
+            assertTrue((Long) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "RunTimeMax") > 0);
+        } finally {
+            executor.unregisterMBean();
+            executor.shutdown();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    @Test
+    public void whenAttributesAreReadWithinASecond_thenCountsComeFromTheSameSnapshot() throws Exception {
+        InstrumentedExecutorService executor = new InstrumentedExecutorService(Executors.newSingleThreadExecutor());
+        long start = System.nanoTime();
+        long before = executor.getCompletedCount();
+        executor.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+        long after = executor.getCompletedCount();
+        boolean withinWindow = System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(900);
+        executor.shutdown();
+
+        assertEquals(0, before);
+        if (withinWindow) {
+            assertEquals(0, after);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package cn.tuyucheng.taketoday.concurrent.future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AsyncSquareCalculatorUnitTest {
+
+    private ExecutorService executor;
+    private AsyncSquareCalculator calculator;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        calculator = new AsyncSquareCalculator(executor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void whenStagesAreChained_thenSquareOfSquare() throws Exception {
+        CompletableFuture<Integer> result = calculator.calculateAfter(calculator.calculate(3));
+
+        assertEquals(81, result.get(5, TimeUnit.SECONDS).intValue());
+    }
+
+    @Test
+    public void whenTimeoutIsLowerThanExecutionTime_thenFailsOrUsesDefault() throws Exception {
+        ExecutionException e = assertThrows(ExecutionException.class,
+          () -> calculator.calculate(4, Duration.ofMillis(100)).get());
+        assertInstanceOf(TimeoutException.class, e.getCause());
+
+        assertEquals(-1, calculator.calculateOrDefault(4, Duration.ofMillis(100), -1).get().intValue());
+    }
+
+    @Test
+    public void givenSingleThread_whenManySquaresAreSummed_thenAllWaitConcurrently() throws Exception {
+        List<Integer> inputs = IntStream.rangeClosed(1, 50).boxed().collect(Collectors.toList());
+
+        // a sleeping single-threaded SquareCalculator would need 50 seconds
+        long sum = calculator.sumOfSquares(inputs).get(10, TimeUnit.SECONDS);
+
+        assertEquals(42925, sum);
+    }
+
+    @Test
+    public void whenDemoTimesOut_thenNullInsteadOfBlocking() throws Exception {
+        CompletableFutureDemo demo = new CompletableFutureDemo(executor);
+
+        assertEquals("Hello world", demo.invoke(Duration.ofMillis(10), Duration.ofSeconds(5)).get());
+        assertNull(demo.invoke(Duration.ofSeconds(10), Duration.ofMillis(100)).get());
+    }
+}
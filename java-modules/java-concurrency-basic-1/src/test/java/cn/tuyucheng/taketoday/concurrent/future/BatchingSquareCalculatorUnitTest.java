@@ -0,0 +1,93 @@
+package cn.tuyucheng.taketoday.concurrent.future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchingSquareCalculatorUnitTest {
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void whenManyCallsArriveWithinWindow_thenOneBatchComputesAll() throws Exception {
+        BatchingSquareCalculator calculator = new BatchingSquareCalculator(scheduler, executor, Duration.ofMillis(200), 1000);
+
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            results.add(calculator.calculate(i % 10));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals((i % 10) * (i % 10), results.get(i).get().intValue());
+        }
+        assertEquals(1, calculator.getBatchCount());
+    }
+
+    @Test
+    public void whenBatchIsFull_thenSubmittedWithoutWaitingForWindow() throws Exception {
+        BatchingSquareCalculator calculator = new BatchingSquareCalculator(scheduler, executor, Duration.ofHours(1), 3);
+
+        CompletableFuture<Integer> first = calculator.calculate(2);
+        calculator.calculate(3);
+        calculator.calculate(4);
+
+        assertEquals(4, first.get(5, TimeUnit.SECONDS).intValue());
+        assertEquals(1, calculator.getBatchCount());
+    }
+
+    @Test
+    public void whenCallerCancels_thenOtherCallersOfSameInputStillGetResult() throws Exception {
+        BatchingSquareCalculator calculator = new BatchingSquareCalculator(scheduler, executor, Duration.ofMillis(50), 10);
+
+        CompletableFuture<Integer> cancelled = calculator.calculate(7);
+        CompletableFuture<Integer> kept = calculator.calculate(7);
+        cancelled.cancel(true);
+
+        assertTrue(cancelled.isCancelled());
+        assertEquals(49, kept.get(5, TimeUnit.SECONDS).intValue());
+        assertEquals(1, calculator.getBatchCount());
+    }
+
+    @Test
+    public void whenSchedulerRejectsTimer_thenBatchIsSubmittedAtOnce() throws Exception {
+        scheduler.shutdown();
+        BatchingSquareCalculator calculator = new BatchingSquareCalculator(scheduler, executor, Duration.ofHours(1), 10);
+
+        assertEquals(36, calculator.calculate(6).get(5, TimeUnit.SECONDS).intValue());
+        assertEquals(1, calculator.getBatchCount());
+    }
+
+    @Test
+    public void whenInputIsNull_thenRejected() {
+        BatchingSquareCalculator calculator = new BatchingSquareCalculator(scheduler, executor, Duration.ofMillis(50), 10);
+
+        assertThrows(NullPointerException.class, () -> calculator.calculate(null));
+    }
+}
@@ -0,0 +1,152 @@
+package cn.tuyucheng.taketoday.concurrent.future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HedgedExecutorUnitTest {
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void whenFirstAttemptIsSlow_thenHedgeWinsAndFirstIsCancelled() throws Exception {
+        HedgedExecutor hedged = new HedgedExecutor(executor, scheduler, 95, 1.0, Duration.ofMillis(50));
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch slowInterrupted = new CountDownLatch(1);
+
+        String result = hedged.submit(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    slowInterrupted.countDown();
+                    throw e;
+                }
+                return "slow";
+            }
+            return "fast";
+        }).get(5, TimeUnit.SECONDS);
+
+        assertEquals("fast", result);
+        assertEquals(1, hedged.getHedgeCount());
+        assertTrue(slowInterrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void whenBudgetIsExhausted_thenNoHedgeIsSent() throws Exception {
+        HedgedExecutor hedged = new HedgedExecutor(executor, scheduler, 95, 0.0, Duration.ofMillis(10));
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedged.submit(() -> {
+            attempts.incrementAndGet();
+            Thread.sleep(200);
+            return "only";
+        }).get(5, TimeUnit.SECONDS);
+
+        assertEquals("only", result);
+        assertEquals(1, attempts.get());
+        assertEquals(0, hedged.getHedgeCount());
+    }
+
+    @Test
+    public void whenLatenciesAreRecorded_thenDelayAdaptsToPercentile() throws Exception {
+        HedgedExecutor hedged = new HedgedExecutor(executor, scheduler, 99, 0.0, Duration.ofSeconds(10));
+        Callable<Integer> fast = () -> 1;
+
+        for (int i = 0; i < 256; i++) {
+            hedged.submit(fast).get(5, TimeUnit.SECONDS);
+        }
+
+        assertTrue(hedged.getHedgeDelay().compareTo(Duration.ofSeconds(1)) < 0, hedged.getHedgeDelay().toString());
+        assertEquals(256, hedged.getRequestCount());
+    }
+
+    @Test
+    public void whenBudgetTokensRunOut_thenHedgesStopUntilRefilled() throws Exception {
+        HedgedExecutor hedged = new HedgedExecutor(executor, scheduler, 95, 0.5, Duration.ZERO);
+        Callable<String> slow = () -> {
+            Thread.sleep(100);
+            return "done";
+        };
+
+        hedged.submit(slow).get(5, TimeUnit.SECONDS);
+        hedged.submit(slow).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, hedged.getHedgeCount());
+    }
+
+    @Test
+    public void whenFirstAttemptFailsFast_thenHedgeIsSentAtOnce() throws Exception {
+        HedgedExecutor hedged = new HedgedExecutor(executor, scheduler, 95, 1.0, Duration.ofSeconds(10));
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedged.submit(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("first attempt failed");
+            }
+            return "hedge";
+        }).get(5, TimeUnit.SECONDS);
+
+        assertEquals("hedge", result);
+        assertEquals(1, hedged.getHedgeCount());
+    }
+
+    @Test
+    public void whenAllAttemptsFail_thenResultFails() {
+        HedgedExecutor hedged = new HedgedExecutor(executor, scheduler, 95, 1.0, Duration.ofSeconds(10));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> hedged.submit(() -> {
+            throw new IllegalStateException("always fails");
+        }).get(5, TimeUnit.SECONDS));
+
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertEquals(1, hedged.getHedgeCount());
+    }
+
+    @Test
+    public void whenHedgeIsRejected_thenItIsNotCountedAndPrimaryStillCompletes() throws Exception {
+        ExecutorService single = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>());
+        try {
+            HedgedExecutor hedged = new HedgedExecutor(single, scheduler, 95, 1.0, Duration.ofMillis(10));
+
+            String result = hedged.submit(() -> {
+                Thread.sleep(200);
+                return "primary";
+            }).get(5, TimeUnit.SECONDS);
+
+            assertEquals("primary", result);
+            assertEquals(0, hedged.getHedgeCount());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package cn.tuyucheng.taketoday.concurrent.future;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.mathutils.MathUtils;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MemoizerUnitTest {
+
+    @Test
+    public void whenManyThreadsAskForSameKey_thenComputedOnce() throws Exception {
+        AtomicInteger computations = new AtomicInteger();
+        Memoizer<Integer, BigInteger> memoizer = new Memoizer<>(n -> {
+            computations.incrementAndGet();
+            return MathUtils.factorial(n);
+        });
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Callable<BigInteger>> callables = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            callables.add(() -> memoizer.compute(3000));
+        }
+
+        List<Future<BigInteger>> results = executorService.invokeAll(callables);
+        executorService.shutdown();
+
+        BigInteger expected = MathUtils.factorial(3000);
+        for (Future<BigInteger> result : results) {
+            assertEquals(expected, result.get());
+        }
+        assertEquals(1, computations.get());
+        assertEquals(1, memoizer.getMissCount());
+        assertEquals(7, memoizer.getHitCount() + memoizer.getWaitCount());
+    }
+
+    @Test
+    public void whenComputationFails_thenNextCallRetries() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Memoizer<Integer, BigInteger> memoizer = new Memoizer<>(n -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("transient failure");
+            }
+            return MathUtils.factorial(n);
+        });
+
+        assertThrows(IllegalStateException.class, () -> memoizer.compute(5));
+        assertEquals(0, memoizer.size());
+
+        assertEquals(BigInteger.valueOf(120), memoizer.compute(5));
+        assertEquals(BigInteger.valueOf(120), memoizer.compute(5));
+        assertEquals(2, memoizer.getMissCount());
+        assertEquals(1, memoizer.getHitCount());
+    }
+}
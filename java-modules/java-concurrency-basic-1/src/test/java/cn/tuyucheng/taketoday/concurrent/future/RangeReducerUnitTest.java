@@ -0,0 +1,39 @@
+package cn.tuyucheng.taketoday.concurrent.future;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RangeReducerUnitTest {
+
+    @Test
+    void whenCalculatesSumOfSquares_thenReturnCorrectValue() {
+        SquareSumCalculator calculator = new SquareSumCalculator(new ForkJoinPool());
+
+        assertEquals(385, calculator.sumOfSquares(10), "The sum of the squares from 1 to 10 is 385");
+        assertEquals(0, calculator.sumOfSquares(0));
+    }
+
+    @Test
+    void whenRangeIsLarge_thenNoStackOverflowAndCorrectValue() {
+        SquareSumCalculator calculator = new SquareSumCalculator(new ForkJoinPool(4));
+        long n = 2_000_000;
+
+        assertEquals(n * (n + 1) / 2 * (2 * n + 1) / 3, calculator.sumOfSquares((int) n));
+    }
+
+    @Test
+    void whenCombinerIsNotCommutative_thenRangeOrderIsKept() {
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        RangeReducer<String> reducer = new RangeReducer<>(0, 10_000, 1,
+          (from, to) -> IntStream.range(from, to).mapToObj(Integer::toString).collect(Collectors.joining(",", "", ",")),
+          String::concat);
+
+        String expected = IntStream.range(0, 10_000).mapToObj(Integer::toString).collect(Collectors.joining(",", "", ","));
+        assertEquals(expected, forkJoinPool.invoke(reducer));
+    }
+}
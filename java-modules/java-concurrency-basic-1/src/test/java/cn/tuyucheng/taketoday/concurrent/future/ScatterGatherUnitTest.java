@@ -0,0 +1,103 @@
+package cn.tuyucheng.taketoday.concurrent.future;
+
+import cn.tuyucheng.taketoday.concurrent.future.ScatterGather.Outcome;
+import cn.tuyucheng.taketoday.concurrent.future.ScatterGather.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScatterGatherUnitTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void whenDeadlinePasses_thenPartialResultsAndStragglersCancelled() throws Exception {
+        CountDownLatch stragglerInterrupted = new CountDownLatch(1);
+        List<Callable<String>> tasks = List.of(
+          () -> "fast",
+          () -> {
+              throw new IllegalStateException("failed");
+          },
+          () -> {
+              try {
+                  Thread.sleep(10_000);
+              } catch (InterruptedException e) {
+                  stragglerInterrupted.countDown();
+                  throw e;
+              }
+              return "slow";
+          });
+        List<Outcome<String>> arrived = new ArrayList<>();
+
+        List<Outcome<String>> outcomes = new ScatterGather(executor).invokeAll(tasks, Duration.ofMillis(300), arrived::add);
+
+        assertEquals(Status.COMPLETED, outcomes.get(0).getStatus());
+        assertEquals("fast", outcomes.get(0).getValue());
+        assertEquals(Status.FAILED, outcomes.get(1).getStatus());
+        assertInstanceOf(IllegalStateException.class, outcomes.get(1).getError());
+        assertEquals(Status.TIMED_OUT, outcomes.get(2).getStatus());
+        assertEquals(2, arrived.size());
+        assertTrue(stragglerInterrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void whenAllTasksFinishEarly_thenReturnWithoutWaitingForDeadline() throws Exception {
+        List<Callable<Integer>> tasks = List.of(() -> 1, () -> 2, () -> 3);
+
+        long start = System.nanoTime();
+        List<Outcome<Integer>> outcomes = new ScatterGather(executor).invokeAll(tasks, Duration.ofSeconds(30));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Status.COMPLETED, outcomes.get(i).getStatus());
+            assertEquals(i + 1, outcomes.get(i).getValue().intValue());
+        }
+    }
+
+    @Test
+    public void whenTaskIsCancelledElsewhere_thenReportedAsFailed() throws Exception {
+        ExecutorService cancelling = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>()) {
+            @Override
+            protected <V> RunnableFuture<V> newTaskFor(Callable<V> callable) {
+                RunnableFuture<V> task = super.newTaskFor(callable);
+                task.cancel(false);
+                return task;
+            }
+        };
+        try {
+            List<Outcome<String>> outcomes = new ScatterGather(cancelling).invokeAll(List.of(() -> "never"), Duration.ofSeconds(5));
+
+            assertEquals(Status.FAILED, outcomes.get(0).getStatus());
+            assertInstanceOf(CancellationException.class, outcomes.get(0).getError());
+        } finally {
+            cancelling.shutdownNow();
+        }
+    }
+}
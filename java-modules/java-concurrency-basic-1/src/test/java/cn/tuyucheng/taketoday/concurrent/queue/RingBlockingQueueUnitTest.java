@@ -0,0 +1,155 @@
+package cn.tuyucheng.taketoday.concurrent.queue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RingBlockingQueueUnitTest {
+
+    @Test
+    public void whenQueueIsEmptyOrFull_thenTimedCallsGiveUp() throws InterruptedException {
+        RingBlockingQueue<Integer> queue = new RingBlockingQueue<>(new MpmcRingQueue<>(2));
+
+        assertNull(queue.poll(50, TimeUnit.MILLISECONDS));
+        queue.put(1);
+        queue.put(2);
+        assertFalse(queue.offer(3, 50, TimeUnit.MILLISECONDS));
+        assertEquals(0, queue.remainingCapacity());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, queue.drainTo(drained));
+        assertEquals(List.of(1, 2), drained);
+    }
+
+    @Test
+    public void whenConsumersAndProducersBlock_thenTheyAreWokenUp() throws Exception {
+        RingBlockingQueue<Integer> queue = new RingBlockingQueue<>(new MpmcRingQueue<>(4));
+        int count = 20_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        List<Future<Long>> sums = new ArrayList<>();
+        for (int c = 0; c < 2; c++) {
+            sums.add(executorService.submit(() -> {
+                long sum = 0;
+                for (int i = 0; i < count; i++) {
+                    sum += queue.take();
+                }
+                return sum;
+            }));
+        }
+        for (int p = 0; p < 2; p++) {
+            executorService.submit(() -> {
+                for (int i = 1; i <= count; i++) {
+                    queue.put(i);
+                }
+                return null;
+            });
+        }
+
+        assertEquals(2L * count * (count + 1) / 2, sums.get(0).get(30, TimeUnit.SECONDS) + sums.get(1).get(30, TimeUnit.SECONDS));
+        executorService.shutdown();
+    }
+
+    @Test
+    public void whenUsedAsThreadPoolQueue_thenAllTasksRun() throws InterruptedException {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(4, 4, 0, TimeUnit.MILLISECONDS,
+          new RingBlockingQueue<>(new MpmcRingQueue<>(1024)), new ThreadPoolExecutor.CallerRunsPolicy());
+        int tasks = 10_000;
+        AtomicInteger executed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(tasks);
+
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                executed.incrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(tasks, executed.get());
+    }
+
+    @Test
+    public void whenElementIsRemovedFromTheMiddle_thenPollSkipsIt() {
+        RingBlockingQueue<Integer> queue = new RingBlockingQueue<>(new MpmcRingQueue<>(4));
+        queue.add(1);
+        queue.add(2);
+        queue.add(3);
+
+        assertTrue(queue.remove(2));
+        assertFalse(queue.remove(2));
+        assertFalse(queue.contains(2));
+        assertEquals(2, queue.size());
+
+        assertEquals(1, queue.poll());
+        assertEquals(3, queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void whenRemovingWhileConsumersPoll_thenEveryElementIsEitherPolledOrRemoved() throws Exception {
+        RingBlockingQueue<Integer> queue = new RingBlockingQueue<>(new MpmcRingQueue<>(64));
+        int count = 20_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        Future<Long> polled = executorService.submit(() -> {
+            long sum = 0;
+            Integer element;
+            while ((element = queue.poll(1, TimeUnit.SECONDS)) != null) {
+                sum += element;
+            }
+            return sum;
+        });
+        Future<Long> removed = executorService.submit(() -> {
+            long sum = 0;
+            for (int i = 1; i <= count; i++) {
+                queue.put(i);
+                if (i % 3 == 0 && queue.remove(i - 1)) {
+                    sum += i - 1;
+                }
+            }
+            return sum;
+        });
+
+        assertEquals((long) count * (count + 1) / 2, polled.get(30, TimeUnit.SECONDS) + removed.get(30, TimeUnit.SECONDS));
+        executorService.shutdown();
+    }
+
+    @Test
+    public void whenThreadPoolIsShutDown_thenQueuedTasksCanBePurged() throws InterruptedException {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+          new RingBlockingQueue<>(new MpmcRingQueue<>(16)));
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Runnable queued = () -> {
+        };
+        executor.execute(queued);
+
+        assertTrue(executor.remove(queued));
+        assertTrue(executor.getQueue().isEmpty());
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,141 @@
+package cn.tuyucheng.taketoday.concurrent.queue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RingQueueUnitTest {
+
+    private static final List<IntFunction<RingQueue<Integer>>> QUEUES = List.of(SpscRingQueue::new, MpscRingQueue::new, MpmcRingQueue::new);
+
+    @Test
+    public void whenQueueIsFull_thenOfferFailsAndElementsComeOutInOrder() {
+        for (IntFunction<RingQueue<Integer>> factory : QUEUES) {
+            RingQueue<Integer> queue = factory.apply(3);
+            assertEquals(4, queue.capacity());
+
+            for (int i = 0; i < 4; i++) {
+                assertTrue(queue.offer(i));
+            }
+            assertFalse(queue.offer(4));
+            assertEquals(4, queue.size());
+            assertEquals(List.of(0, 1, 2, 3), new ArrayList<>(queue));
+
+            for (int i = 0; i < 4; i++) {
+                assertEquals(i, queue.peek().intValue());
+                assertEquals(i, queue.poll().intValue());
+            }
+            assertNull(queue.poll());
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    public void givenOneProducerAndOneConsumer_whenSpscIsUsed_thenOrderIsKept() throws Exception {
+        SpscRingQueue<Integer> queue = new SpscRingQueue<>(64);
+        int count = 200_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        executorService.submit(() -> {
+            for (int i = 0; i < count; i++) {
+                while (!queue.offer(i)) {
+                    Thread.yield();
+                }
+            }
+        });
+        Future<Boolean> inOrder = executorService.submit(() -> {
+            for (int i = 0; i < count; i++) {
+                Integer element;
+                while ((element = queue.poll()) == null) {
+                    Thread.yield();
+                }
+                if (element != i) {
+                    return false;
+                }
+            }
+            return true;
+        });
+
+        assertTrue(inOrder.get());
+        executorService.shutdown();
+    }
+
+    @Test
+    public void givenManyProducers_whenMpscIsUsed_thenEachProducersOrderIsKept() throws Exception {
+        MpscRingQueue<Integer> queue = new MpscRingQueue<>(64);
+        int producers = 4;
+        int perProducer = 50_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executorService.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!queue.offer(producer * perProducer + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+
+        int[] last = {-1, -1, -1, -1};
+        for (int received = 0; received < producers * perProducer; received++) {
+            Integer element;
+            while ((element = queue.poll()) == null) {
+                Thread.yield();
+            }
+            int producer = element / perProducer;
+            assertTrue(element % perProducer > last[producer]);
+            last[producer] = element % perProducer;
+        }
+        executorService.shutdown();
+    }
+
+    @Test
+    public void givenManyProducersAndConsumers_whenMpmcIsUsed_thenEveryElementIsPolledOnce() throws Exception {
+        MpmcRingQueue<Integer> queue = new MpmcRingQueue<>(64);
+        int threads = 4;
+        int perProducer = 50_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads * 2);
+        for (int p = 0; p < threads; p++) {
+            executorService.submit(() -> {
+                for (int i = 1; i <= perProducer; i++) {
+                    while (!queue.offer(i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        List<Future<Long>> sums = new ArrayList<>();
+        for (int c = 0; c < threads; c++) {
+            sums.add(executorService.submit(() -> {
+                long sum = 0;
+                for (int i = 0; i < perProducer; i++) {
+                    Integer element;
+                    while ((element = queue.poll()) == null) {
+                        Thread.yield();
+                    }
+                    sum += element;
+                }
+                return sum;
+            }));
+        }
+
+        long total = 0;
+        for (Future<Long> sum : sums) {
+            total += sum.get();
+        }
+        assertEquals((long) threads * perProducer * (perProducer + 1) / 2, total);
+        assertTrue(queue.isEmpty());
+        executorService.shutdown();
+    }
+}
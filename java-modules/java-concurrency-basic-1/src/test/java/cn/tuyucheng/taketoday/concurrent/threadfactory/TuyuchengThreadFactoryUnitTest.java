@@ -0,0 +1,86 @@
+package cn.tuyucheng.taketoday.concurrent.threadfactory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+public class TuyuchengThreadFactoryUnitTest {
+
+    @Test
+    public void whenThreadsAreCreatedConcurrently_thenNamesAreUnique() throws InterruptedException {
+        TuyuchengThreadFactory factory = new TuyuchengThreadFactory("unique", false, false);
+        Set<String> names = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Callable<Void>> callables = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            callables.add(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    names.add(factory.newThread(() -> {
+                    }).getName());
+                }
+                return null;
+            });
+        }
+
+        executorService.invokeAll(callables);
+        executorService.shutdown();
+
+        assertEquals(8000, names.size());
+    }
+
+    @Test
+    public void whenVirtualModeIsRequested_thenUsedOnlyWhereSupported() {
+        TuyuchengThreadFactory factory = new TuyuchengThreadFactory("virtual", true);
+
+        assertEquals(Runtime.version().feature() >= 21, factory.isVirtual());
+        assertEquals(TuyuchengThreadFactory.isVirtualThreadSupported(), factory.isVirtual());
+    }
+
+    @Test
+    public void whenBlockingTasksRunPerThread_thenTheyAreNotCappedByPoolSize() throws InterruptedException {
+        ExecutorService executor = ThreadPerTaskExecutors.newVirtualThreadPerTaskExecutor("blocking", 1000);
+        int tasks = 1000;
+        CountDownLatch done = new CountDownLatch(tasks);
+
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+        }
+
+        // a pool of 10 threads would need 20 seconds
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    public void whenVirtualThreadsAreMissing_thenFallbackIsBounded() {
+        assumeFalse(TuyuchengThreadFactory.isVirtualThreadSupported());
+
+        ExecutorService byDefault = ThreadPerTaskExecutors.newVirtualThreadPerTaskExecutor("default");
+        assertEquals(ThreadPerTaskExecutors.DEFAULT_MAX_PLATFORM_THREADS, ((ThreadPoolExecutor) byDefault).getMaximumPoolSize());
+        byDefault.shutdown();
+
+        ExecutorService executor = ThreadPerTaskExecutors.newVirtualThreadPerTaskExecutor("bounded", 4);
+        assertEquals(4, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,72 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.BufferedCounter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BufferedCounterUnitTest {
+
+    @Test
+    void whenThreadsFlushAfterIncrementing_thenCorrect() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        BufferedCounter counter = new BufferedCounter(10, Duration.ZERO);
+        Future<?> future1 = executorService.submit(() -> incrementTimesThenFlush(counter, 1_005));
+        Future<?> future2 = executorService.submit(() -> incrementTimesThenFlush(counter, 1_005));
+
+        future1.get();
+        future2.get();
+
+        assertThat(counter.getCounter()).isEqualTo(2_010);
+        executorService.shutdown();
+    }
+
+    @Test
+    void whenIncrementedWithoutFlush_thenLagIsBelowThreshold() {
+        BufferedCounter counter = new BufferedCounter(10, Duration.ZERO);
+        for (int i = 0; i < 1_005; i++) {
+            counter.incrementCounter();
+        }
+
+        assertThat(counter.getCounter()).isEqualTo(1_000);
+        counter.flush();
+        assertThat(counter.getCounter()).isEqualTo(1_005);
+    }
+
+    @Test
+    void whenIntervalHasPassed_thenNextIncrementFlushes() throws Exception {
+        BufferedCounter counter = new BufferedCounter(1_000, Duration.ofMillis(50));
+        counter.incrementCounter();
+
+        Thread.sleep(100);
+        counter.incrementCounter();
+
+        assertThat(counter.getCounter()).isEqualTo(2);
+    }
+
+    @Test
+    void whenThreadTerminates_thenItsBufferIsNotLost() throws Exception {
+        BufferedCounter counter = new BufferedCounter(100, Duration.ZERO);
+        Thread thread = new Thread(() -> {
+            for (int i = 0; i < 5; i++) {
+                counter.incrementCounter();
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertThat(counter.getCounter()).isEqualTo(5);
+    }
+
+    private static void incrementTimesThenFlush(BufferedCounter counter, int times) {
+        for (int i = 0; i < times; i++) {
+            counter.incrementCounter();
+        }
+        counter.flush();
+    }
+}
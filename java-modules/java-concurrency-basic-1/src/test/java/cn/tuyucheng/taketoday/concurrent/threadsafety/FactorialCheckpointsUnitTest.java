@@ -0,0 +1,74 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.mathutils.FactorialCheckpoints;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.mathutils.MathUtils;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FactorialCheckpointsUnitTest {
+
+    @Test
+    void whenNearbyFactorialsRequestedConcurrently_thenCorrect() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        FactorialCheckpoints checkpoints = new FactorialCheckpoints(1_000_000);
+        Future<Boolean> future1 = executorService.submit(() -> allCorrect(checkpoints, 1_000, 1_100));
+        Future<Boolean> future2 = executorService.submit(() -> allCorrect(checkpoints, 1_050, 1_150));
+
+        assertThat(future1.get()).isTrue();
+        assertThat(future2.get()).isTrue();
+        assertThat(checkpoints.size()).isPositive();
+        executorService.shutdown();
+    }
+
+    @Test
+    void whenSameFactorialRequestedTwice_thenCheckpointIsReturned() {
+        FactorialCheckpoints checkpoints = new FactorialCheckpoints(1_000_000);
+
+        BigInteger first = checkpoints.factorial(500);
+
+        assertThat(checkpoints.factorial(500)).isSameAs(first);
+        assertThat(checkpoints.factorial(1)).isEqualTo(BigInteger.ONE);
+    }
+
+    @Test
+    void whenBudgetIsExceeded_thenCheckpointsAreEvicted() {
+        FactorialCheckpoints checkpoints = new FactorialCheckpoints(4_096);
+
+        for (int number = 100; number <= 1_000; number += 100) {
+            assertThat(checkpoints.factorial(number)).isEqualTo(MathUtils.factorial(number));
+        }
+
+        assertThat(checkpoints.getUsedBytes()).isLessThanOrEqualTo(4_096);
+        assertThat(checkpoints.size()).isLessThan(10);
+    }
+
+    @Test
+    void whenBudgetIsExceeded_thenRecentlyUsedCheckpointGetsSecondChance() {
+        FactorialCheckpoints checkpoints = new FactorialCheckpoints(4_096);
+        BigInteger used = checkpoints.factorial(1_003);
+        BigInteger unused = checkpoints.factorial(1_002);
+        checkpoints.factorial(1_001);
+
+        checkpoints.factorial(1_003);
+        checkpoints.factorial(1_000);
+
+        assertThat(checkpoints.size()).isEqualTo(3);
+        assertThat(checkpoints.factorial(1_003)).isSameAs(used);
+        assertThat(checkpoints.factorial(1_002)).isNotSameAs(unused).isEqualTo(unused);
+    }
+
+    private static boolean allCorrect(FactorialCheckpoints checkpoints, int from, int to) {
+        for (int number = from; number <= to; number++) {
+            if (!checkpoints.factorial(number).equals(MathUtils.factorial(number))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
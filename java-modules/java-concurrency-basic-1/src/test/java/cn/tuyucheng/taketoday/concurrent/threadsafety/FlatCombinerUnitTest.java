@@ -0,0 +1,73 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.locks.FlatCombiner;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.FlatCombiningCounter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FlatCombinerUnitTest {
+
+    @Test
+    void whenCounterIncrementedConcurrently_thenNoUpdateIsLost() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        FlatCombiningCounter counter = new FlatCombiningCounter();
+        Future<?> future1 = executorService.submit(() -> incrementTimes(counter, 10_000));
+        Future<?> future2 = executorService.submit(() -> incrementTimes(counter, 10_000));
+
+        future1.get();
+        future2.get();
+
+        assertThat(counter.getCounter()).isEqualTo(20_000);
+        executorService.shutdown();
+    }
+
+    @Test
+    void whenPriorityQueueWrapped_thenOperationsAreSerialized() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        FlatCombiner<PriorityQueue<Integer>> queue = new FlatCombiner<>(new PriorityQueue<>());
+        Future<?> future1 = executorService.submit(() -> offerRange(queue, 0, 5_000));
+        Future<?> future2 = executorService.submit(() -> offerRange(queue, 5_000, 10_000));
+
+        future1.get();
+        future2.get();
+
+        List<Integer> polled = new ArrayList<>();
+        Integer next;
+        while ((next = queue.apply(PriorityQueue::poll)) != null) {
+            polled.add(next);
+        }
+        assertThat(polled).hasSize(10_000).isSorted();
+        executorService.shutdown();
+    }
+
+    @Test
+    void whenOperationThrows_thenCallerGetsException() {
+        FlatCombiner<List<Integer>> list = new FlatCombiner<>(new ArrayList<>());
+
+        assertThatThrownBy(() -> list.apply(l -> l.get(0))).isInstanceOf(IndexOutOfBoundsException.class);
+        int size = list.apply(List::size);
+        assertThat(size).isZero();
+    }
+
+    private static void incrementTimes(FlatCombiningCounter counter, int times) {
+        for (int i = 0; i < times; i++) {
+            counter.incrementCounter();
+        }
+    }
+
+    private static void offerRange(FlatCombiner<PriorityQueue<Integer>> queue, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int value = i;
+            queue.execute(q -> q.offer(value));
+        }
+    }
+}
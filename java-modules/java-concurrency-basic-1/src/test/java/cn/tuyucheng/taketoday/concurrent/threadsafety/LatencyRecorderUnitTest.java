@@ -0,0 +1,98 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.LatencyHistogram;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.LatencyRecorder;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.StripedLatencyRecorder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class LatencyRecorderUnitTest {
+
+    @Test
+    void whenValuesRecorded_thenPercentilesAreWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        assertThat(histogram.getTotalCount()).isEqualTo(100_000);
+        assertThat(histogram.getMaxValue()).isEqualTo(100_000_000);
+        assertThat(histogram.getValueAtPercentile(50)).isCloseTo(50_000_000, within(50_000_000 / 64L));
+        assertThat(histogram.getValueAtPercentile(99)).isCloseTo(99_000_000, within(99_000_000 / 64L));
+        assertThat(histogram.getValueAtPercentile(99.9)).isCloseTo(99_900_000, within(99_900_000 / 64L));
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(100_000_000);
+    }
+
+    @Test
+    void whenHistogramsAdded_thenCountsAreMerged() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(20);
+        second.record(Long.MAX_VALUE);
+
+        first.add(second);
+
+        assertThat(first.getTotalCount()).isEqualTo(3);
+        assertThat(first.getValueAtPercentile(50)).isEqualTo(20);
+        assertThat(first.getMaxValue()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void whenRecordedFromSeveralThreads_thenIntervalHistogramContainsEveryValueOnce() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        LatencyRecorder recorder = new LatencyRecorder();
+        Future<?> future1 = executorService.submit(() -> recordTimes(recorder, 50_000));
+        Future<?> future2 = executorService.submit(() -> recordTimes(recorder, 50_000));
+
+        long harvested = 0;
+        while (!future1.isDone() || !future2.isDone()) {
+            harvested += recorder.getIntervalHistogram().getTotalCount();
+        }
+        future1.get();
+        future2.get();
+        harvested += recorder.getIntervalHistogram().getTotalCount();
+
+        assertThat(harvested).isEqualTo(100_000);
+        assertThat(recorder.getIntervalHistogram().getTotalCount()).isZero();
+        executorService.shutdown();
+    }
+
+    @Test
+    void whenManyShortLivedThreadsRecordIntoStripes_thenIntervalHistogramContainsEveryValueOnce() throws Exception {
+        StripedLatencyRecorder recorder = new StripedLatencyRecorder(4);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 64; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    recorder.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long harvested = recorder.getIntervalHistogram().getTotalCount();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        harvested += recorder.getIntervalHistogram().getTotalCount();
+
+        assertThat(harvested).isEqualTo(64_000);
+        assertThat(recorder.getIntervalHistogram().getTotalCount()).isZero();
+    }
+
+    private static void recordTimes(LatencyRecorder recorder, int times) {
+        for (int i = 0; i < times; i++) {
+            recorder.record(i);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.locks.LockMetrics;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.locks.LockStrategies;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.locks.LockStrategy;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.locks.MeteredLockStrategy;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.ObjectLockCounter;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.ReentrantLockCounter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LockStrategyUnitTest {
+
+    private static final int THREADS = 2;
+    private static final int INCREMENTS = 10_000;
+
+    static Stream<Arguments> lockStrategies() {
+        return Stream.of(
+          Arguments.of("fair", (Supplier<LockStrategy>) LockStrategies::fair),
+          Arguments.of("unfair", (Supplier<LockStrategy>) LockStrategies::unfair),
+          Arguments.of("ttasSpin", (Supplier<LockStrategy>) LockStrategies::ttasSpin),
+          Arguments.of("spinThenPark", (Supplier<LockStrategy>) LockStrategies::spinThenPark),
+          Arguments.of("mcs", (Supplier<LockStrategy>) LockStrategies::mcs));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("lockStrategies")
+    void givenLockStrategy_whenReentrantLockCounterIncrementedConcurrently_thenNoUpdateIsLost(String name, Supplier<LockStrategy> strategy) throws Exception {
+        MeteredLockStrategy metered = LockStrategies.metered(strategy.get());
+        ReentrantLockCounter counter = new ReentrantLockCounter(metered);
+
+        runConcurrently(counter::incrementCounter);
+
+        assertThat(counter.getCounter()).isEqualTo(THREADS * INCREMENTS);
+        LockMetrics.Snapshot metrics = metered.getMetrics().snapshot();
+        assertThat(metrics.getAcquisitions()).isEqualTo(THREADS * INCREMENTS);
+        assertThat(metrics.getCurrentQueueLength()).isZero();
+        assertThat(metrics.getMaxQueueLength()).isLessThan(THREADS);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("lockStrategies")
+    void givenLockStrategy_whenObjectLockCounterIncrementedConcurrently_thenNoUpdateIsLost(String name, Supplier<LockStrategy> strategy) throws Exception {
+        MeteredLockStrategy metered = LockStrategies.metered(strategy.get());
+        ObjectLockCounter counter = new ObjectLockCounter(metered);
+
+        runConcurrently(counter::incrementCounter);
+
+        assertThat(counter.getCounter()).isEqualTo(THREADS * INCREMENTS);
+        assertThat(metered.getMetrics().snapshot().getAcquisitions()).isEqualTo(THREADS * INCREMENTS + 1);
+    }
+
+    @Test
+    void givenSpinThenParkLock_whenHolderReleases_thenParkedWaiterIsWoken() throws Exception {
+        LockStrategy lock = LockStrategies.spinThenPark(1);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        lock.lock();
+        Future<?> waiter = executorService.submit(() -> {
+            lock.lock();
+            lock.unlock();
+        });
+
+        Thread.sleep(100);
+        assertThat(waiter.isDone()).isFalse();
+        lock.unlock();
+
+        waiter.get(5, TimeUnit.SECONDS);
+        executorService.shutdown();
+    }
+
+    private static void runConcurrently(Runnable increment) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executorService.submit(() -> {
+                for (int j = 0; j < INCREMENTS; j++) {
+                    increment.run();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+    }
+}
@@ -2,10 +2,13 @@ package cn.tuyucheng.taketoday.concurrent.threadsafety;
 
 import cn.tuyucheng.taketoday.concurrent.threadsafety.mathutils.MathUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.math.BigInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class MathUtilsUnitTest {
     
@@ -13,4 +16,19 @@ public class MathUtilsUnitTest {
     void whenCalledFactorialMethod_thenCorrect() {
         assertThat(MathUtils.factorial(2)).isEqualTo(new BigInteger("2"));
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0, 1, 2, 20, 33, 1_000, 10_000})
+    void whenCalledParallelFactorialMethod_thenSameAsFactorial(int number) {
+        assertThat(MathUtils.parallelFactorial(number)).isEqualTo(MathUtils.factorial(number));
+    }
+
+    @Test
+    void whenCalledProductMethod_thenCorrect() {
+        assertThat(MathUtils.product(5, 7)).isEqualTo(BigInteger.valueOf(210));
+        assertThat(MathUtils.product(7, 5)).isEqualTo(BigInteger.ONE);
+        assertThatThrownBy(() -> MathUtils.product(0, 5)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(MathUtils.product(Integer.MAX_VALUE - 1, Integer.MAX_VALUE))
+          .isEqualTo(BigInteger.valueOf(Integer.MAX_VALUE - 1).multiply(BigInteger.valueOf(Integer.MAX_VALUE)));
+    }
+}
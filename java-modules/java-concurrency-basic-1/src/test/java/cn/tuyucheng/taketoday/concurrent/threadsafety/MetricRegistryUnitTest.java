@@ -0,0 +1,64 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.MetricRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+public class MetricRegistryUnitTest {
+
+    @Test
+    void whenIncrementedThroughHandlesConcurrently_thenSnapshotIsCorrect() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        MetricRegistry registry = new MetricRegistry(10);
+        MetricRegistry.Handle requests = registry.counter("requests");
+        MetricRegistry.Handle errors = registry.counter("errors");
+        Future<?> future1 = executorService.submit(() -> incrementTimes(requests, 1_000));
+        Future<?> future2 = executorService.submit(() -> incrementTimes(registry.counter("requests"), 1_000));
+
+        errors.add(3);
+        future1.get();
+        future2.get();
+
+        MetricRegistry.Snapshot snapshot = registry.snapshot();
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.isConsistent()).isTrue();
+        assertThat(snapshot.asMap()).containsExactly(entry("requests", 2_000L), entry("errors", 3L));
+        executorService.shutdown();
+    }
+
+    @Test
+    void whenSameNameResolvedTwice_thenSameHandleReturned() {
+        MetricRegistry registry = new MetricRegistry(10);
+
+        assertThat(registry.counter("requests")).isSameAs(registry.counter("requests"));
+    }
+
+    @Test
+    void whenRegistryIsFull_thenThrowException() {
+        MetricRegistry registry = new MetricRegistry(1);
+        registry.counter("requests");
+
+        assertThatThrownBy(() -> registry.counter("errors")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void whenDeltaIsNegative_thenThrowException() {
+        MetricRegistry.Handle requests = new MetricRegistry(1).counter("requests");
+
+        assertThatThrownBy(() -> requests.add(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(requests.get()).isZero();
+    }
+
+    private static void incrementTimes(MetricRegistry.Handle handle, int times) {
+        for (int i = 0; i < times; i++) {
+            handle.increment();
+        }
+    }
+}
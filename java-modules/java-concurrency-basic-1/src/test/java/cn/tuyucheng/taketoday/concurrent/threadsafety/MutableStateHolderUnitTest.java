@@ -0,0 +1,38 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.MutableStateHolder;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MutableStateHolderUnitTest {
+
+    @Test
+    void whenCalledSetState_thenSnapshotIsConsistent() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        MutableStateHolder stateHolder = new MutableStateHolder("0");
+        Future<?> writer = executorService.submit(() -> {
+            for (int i = 1; i <= 10_000; i++) {
+                stateHolder.setState(String.valueOf(i));
+            }
+        });
+        Future<Boolean> reader = executorService.submit(() -> {
+            while (!writer.isDone()) {
+                MutableStateHolder.Snapshot snapshot = stateHolder.getSnapshot();
+                if (!snapshot.getState().equals(String.valueOf(snapshot.getVersion()))) {
+                    return false;
+                }
+            }
+            return true;
+        });
+
+        writer.get();
+        assertThat(reader.get()).isTrue();
+        assertThat(stateHolder.getState()).isEqualTo("10000");
+        assertThat(stateHolder.getVersion()).isEqualTo(10_000);
+    }
+}
@@ -0,0 +1,73 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.OffHeapCounterTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OffHeapCounterTableUnitTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void whenIncrementedConcurrently_thenNoUpdateIsLost() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        OffHeapCounterTable table = OffHeapCounterTable.allocateDirect(16);
+        Future<?> future1 = executorService.submit(() -> incrementAll(table, 10_000));
+        Future<?> future2 = executorService.submit(() -> incrementAll(table, 10_000));
+
+        future1.get();
+        future2.get();
+
+        for (int id = 0; id < table.capacity(); id++) {
+            assertThat(table.get(id)).isEqualTo(20_000);
+        }
+        executorService.shutdown();
+    }
+
+    @Test
+    void whenFileBackedTableIsMappedAgain_thenCountsSurvive() throws Exception {
+        Path file = tempDir.resolve("counters.bin");
+        OffHeapCounterTable table = OffHeapCounterTable.mapFile(file, 1_000);
+        table.getAndAdd(42, 7);
+        table.force();
+
+        OffHeapCounterTable reopened = OffHeapCounterTable.mapFile(file, 1_000);
+        OffHeapCounterTable readOnly = OffHeapCounterTable.mapReadOnly(file);
+
+        assertThat(reopened.getAndAdd(42, 1)).isEqualTo(7);
+        assertThat(readOnly.capacity()).isEqualTo(1_000);
+        assertThat(readOnly.get(42)).isEqualTo(8);
+    }
+
+    @Test
+    void whenFileHasDifferentCapacity_thenThrowException() throws Exception {
+        Path file = tempDir.resolve("counters.bin");
+        OffHeapCounterTable.mapFile(file, 10);
+
+        assertThatThrownBy(() -> OffHeapCounterTable.mapFile(file, 20)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void whenIdIsOutOfRange_thenThrowException() {
+        OffHeapCounterTable table = OffHeapCounterTable.allocateDirect(4);
+
+        assertThatThrownBy(() -> table.increment(4)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    private static void incrementAll(OffHeapCounterTable table, int times) {
+        for (int i = 0; i < times; i++) {
+            for (int id = 0; id < table.capacity(); id++) {
+                table.increment(id);
+            }
+        }
+    }
+}
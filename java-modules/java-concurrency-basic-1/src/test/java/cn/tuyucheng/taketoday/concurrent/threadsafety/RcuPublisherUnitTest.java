@@ -0,0 +1,104 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.RcuPublisher;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.StateHolder;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RcuPublisherUnitTest {
+
+    @Test
+    void whenUpdatedConcurrently_thenEveryUpdateIsPublished() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        RcuPublisher<StateHolder, StringBuilder> publisher = statePublisher("");
+        Future<?> future1 = executorService.submit(() -> appendTimes(publisher, 1_000));
+        Future<?> future2 = executorService.submit(() -> appendTimes(publisher, 1_000));
+
+        future1.get();
+        future2.get();
+
+        assertThat(publisher.get().getState()).hasSize(2_000);
+        assertThat(publisher.getVersion()).isBetween(1L, 2_000L);
+        executorService.shutdown();
+    }
+
+    @Test
+    void whenVersionIsPublished_thenAwaitingThreadIsReleased() throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        RcuPublisher<StateHolder, StringBuilder> publisher = statePublisher("initial");
+        Future<Boolean> awaited = executorService.submit(() -> publisher.awaitVersion(1, Duration.ofSeconds(5)));
+
+        long version = publisher.update(state -> state.setLength(0));
+
+        assertThat(version).isEqualTo(1);
+        assertThat(awaited.get()).isTrue();
+        assertThat(publisher.get().getState()).isEmpty();
+        assertThat(publisher.awaitVersion(2, Duration.ofMillis(10))).isFalse();
+        executorService.shutdown();
+    }
+
+    @Test
+    void whenMutationThrows_thenOnlyItsCallerFails() {
+        RcuPublisher<StateHolder, StringBuilder> publisher = statePublisher("initial");
+
+        assertThatThrownBy(() -> publisher.update(state -> {
+            throw new IllegalStateException("rejected");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(publisher.getVersion()).isZero();
+        publisher.update(state -> state.append("!"));
+
+        assertThat(publisher.get().getState()).isEqualTo("initial!");
+    }
+
+    @Test
+    void whenMutationFailsHalfway_thenItsPartialChangeIsNotPublished() {
+        RcuPublisher<StateHolder, StringBuilder> publisher = statePublisher("initial");
+
+        assertThatThrownBy(() -> publisher.update(state -> {
+            state.append("-partial");
+            throw new AssertionError("failed halfway");
+        })).isInstanceOf(AssertionError.class);
+        publisher.update(state -> state.append("!"));
+
+        assertThat(publisher.get().getState()).isEqualTo("initial!");
+    }
+
+    @Test
+    void whenThawThrows_thenWriterFailsAndLaterUpdatesStillWork() {
+        AtomicBoolean failThaw = new AtomicBoolean(true);
+        RcuPublisher<StateHolder, StringBuilder> publisher = new RcuPublisher<>(new StateHolder("initial"),
+          state -> {
+              if (failThaw.getAndSet(false)) {
+                  throw new IllegalStateException("thaw failed");
+              }
+              return new StringBuilder(state.getState());
+          },
+          draft -> new StateHolder(draft.toString()));
+
+        assertThatThrownBy(() -> publisher.update(state -> state.append("lost"))).isInstanceOf(IllegalStateException.class);
+        assertThat(publisher.getVersion()).isZero();
+
+        assertThat(publisher.update(state -> state.append("!"))).isEqualTo(1);
+        assertThat(publisher.get().getState()).isEqualTo("initial!");
+    }
+
+    private static RcuPublisher<StateHolder, StringBuilder> statePublisher(String initial) {
+        return new RcuPublisher<>(new StateHolder(initial),
+          state -> new StringBuilder(state.getState()),
+          draft -> new StateHolder(draft.toString()));
+    }
+
+    private static void appendTimes(RcuPublisher<StateHolder, StringBuilder> publisher, int times) {
+        for (int i = 0; i < times; i++) {
+            publisher.update(state -> state.append('x'));
+        }
+    }
+}
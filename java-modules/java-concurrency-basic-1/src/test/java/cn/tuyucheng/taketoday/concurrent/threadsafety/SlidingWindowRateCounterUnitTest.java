@@ -0,0 +1,69 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.SlidingWindowRateCounter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SlidingWindowRateCounterUnitTest {
+
+    @Test
+    void whenCalledIncrementCounterConcurrently_thenAllEventsAreCountedInWindow() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        SlidingWindowRateCounter counter = new SlidingWindowRateCounter();
+        Future<?> future1 = executorService.submit(() -> incrementTimes(counter, 10_000));
+        Future<?> future2 = executorService.submit(() -> incrementTimes(counter, 10_000));
+
+        future1.get();
+        future2.get();
+
+        assertThat(counter.getCount(Duration.ofSeconds(60))).isEqualTo(20_000);
+        assertThat(counter.ratePerSecond(Duration.ofSeconds(10))).isPositive();
+    }
+
+    @Test
+    void whenWindowHasPassed_thenEventsAreNoLongerCounted() throws Exception {
+        SlidingWindowRateCounter counter = new SlidingWindowRateCounter(Duration.ofMillis(10), Duration.ofMillis(100));
+        incrementTimes(counter, 100);
+
+        Thread.sleep(250);
+        counter.incrementCounter();
+
+        assertThat(counter.getCount(Duration.ofMillis(100))).isEqualTo(1);
+    }
+
+    @Test
+    void whenTickPassesTwoToThe32_thenEventsAreStillCounted() {
+        AtomicLong clock = new AtomicLong();
+        SlidingWindowRateCounter counter = new SlidingWindowRateCounter(Duration.ofNanos(1), Duration.ofNanos(100), clock::get);
+
+        clock.set((1L << 32) - 1);
+        counter.incrementCounter();
+        clock.set(1L << 32);
+        counter.incrementCounter();
+        counter.incrementCounter();
+
+        assertThat(counter.getCount(Duration.ofNanos(5))).isEqualTo(3);
+        assertThat(counter.getCount(Duration.ofNanos(1))).isEqualTo(2);
+    }
+
+    @Test
+    void whenWindowIsLargerThanMaxWindow_thenThrowException() {
+        SlidingWindowRateCounter counter = new SlidingWindowRateCounter(Duration.ofSeconds(1), Duration.ofSeconds(10));
+
+        assertThatThrownBy(() -> counter.ratePerSecond(Duration.ofSeconds(60))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void incrementTimes(SlidingWindowRateCounter counter, int times) {
+        for (int i = 0; i < times; i++) {
+            counter.incrementCounter();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.callables.StampedLockCounterCallable;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.StampedLockCounter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StampedLockCounterUnitTest {
+
+    @Test
+    void whenCalledIncrementCounter_thenCorrect() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        StampedLockCounter counter = new StampedLockCounter();
+        Future<Integer> future1 = executorService.submit(new StampedLockCounterCallable(counter));
+        Future<Integer> future2 = executorService.submit(new StampedLockCounterCallable(counter));
+
+        // Just to make sure both are completed
+        future1.get();
+        future2.get();
+
+        assertThat(counter.getCounter()).isEqualTo(2);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.application.StressHarness;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.application.StressResult;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.callables.AtomicCounterCallable;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.callables.MessageServiceCallable;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.AtomicCounter;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.MessageService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StressHarnessUnitTest {
+
+    @Test
+    void whenCounterCallableStressed_thenNoUpdateIsLost() throws Exception {
+        AtomicCounter counter = new AtomicCounter();
+
+        StressResult result = StressHarness.run("AtomicCounterCallable", new AtomicCounterCallable(counter),
+          counter::getCounter, 2, Duration.ofMillis(200));
+
+        assertThat(result.getOperations()).isPositive();
+        assertThat(result.getOpsPerSecond()).isPositive();
+        assertThat(result.getLatencies().getTotalCount()).isEqualTo(result.getOperations());
+        assertThat(result.getObservedCount()).isEqualTo(result.getExpectedCount());
+        assertThat(result.getLostUpdates()).isZero();
+    }
+
+    @Test
+    void whenCallableDoesNotCount_thenOnlyThroughputIsReported() throws Exception {
+        MessageService messageService = new MessageService("Welcome to Tuyucheng!");
+
+        StressResult result = StressHarness.run("MessageServiceCallable", new MessageServiceCallable(messageService),
+          null, 1, Duration.ofMillis(100));
+
+        assertThat(result.getOperations()).isPositive();
+        assertThat(result.getObservedCount()).isNull();
+        assertThat(result.getLostUpdates()).isZero();
+    }
+}
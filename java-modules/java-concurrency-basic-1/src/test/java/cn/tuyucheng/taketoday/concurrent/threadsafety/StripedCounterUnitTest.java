@@ -0,0 +1,38 @@
+package cn.tuyucheng.taketoday.concurrent.threadsafety;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.callables.StripedCounterCallable;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.StripedCounter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StripedCounterUnitTest {
+
+    @Test
+    void whenCalledIncrementCounter_thenCorrect() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        StripedCounter counter = new StripedCounter();
+        Future<Integer> future1 = executorService.submit(new StripedCounterCallable(counter));
+        Future<Integer> future2 = executorService.submit(new StripedCounterCallable(counter));
+
+        // Just to make sure both are completed
+        future1.get();
+        future2.get();
+
+        assertThat(counter.getCounter()).isEqualTo(2);
+    }
+
+    @Test
+    void whenCalledSumThenReset_thenReturnsSumAndResets() {
+        StripedCounter counter = new StripedCounter();
+        counter.incrementCounter();
+        counter.incrementCounter();
+
+        assertThat(counter.sumThenReset()).isEqualTo(2);
+        assertThat(counter.getCounter()).isZero();
+    }
+}
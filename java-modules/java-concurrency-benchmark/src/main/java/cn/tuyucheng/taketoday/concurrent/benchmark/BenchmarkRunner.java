@@ -0,0 +1,78 @@
+package cn.tuyucheng.taketoday.concurrent.benchmark;
+
+import cn.tuyucheng.taketoday.concurrent.benchmark.counter.CounterBenchmark;
+import org.openjdk.jmh.runner.BenchmarkList;
+import org.openjdk.jmh.runner.BenchmarkListEntry;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.format.OutputFormatFactory;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the selected benchmarks. {@link CounterBenchmark} is run once per thread count: 1, 2, 4, ... up to the number
+ * of available processors; every other benchmark runs once with the thread count from its own annotations. Any
+ * regular JMH command line option (include pattern, -p, -rf, ...) can be passed through; an explicit {@code -t} runs
+ * every selected benchmark with only that thread count.
+ */
+public class BenchmarkRunner {
+    private static final String SWEPT = CounterBenchmark.class.getName();
+    private static final String SWEPT_PATTERN = Pattern.quote(SWEPT + ".");
+    private static final String NOT_SWEPT_PATTERN = "^(?!" + SWEPT_PATTERN + ")";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        if (cmdOptions.getThreads().hasValue()) {
+            new Runner(cmdOptions).run();
+            return;
+        }
+
+        Set<String> selected = selectedClasses(cmdOptions);
+        if (selected.stream().anyMatch(benchmarkClass -> !benchmarkClass.equals(SWEPT))) {
+            new Runner(new OptionsBuilder()
+              .parent(cmdOptions)
+              .exclude(SWEPT_PATTERN)
+              .build()).run();
+        }
+        if (selected.contains(SWEPT)) {
+            for (int threads : threadCounts(Runtime.getRuntime().availableProcessors())) {
+                Options options = new OptionsBuilder()
+                  .parent(cmdOptions)
+                  .exclude(NOT_SWEPT_PATTERN)
+                  .threads(threads)
+                  .build();
+                new Runner(options).run();
+            }
+        }
+    }
+
+    static List<Integer> threadCounts(int max) {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < max; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(max);
+        return counts;
+    }
+
+    private static Set<String> selectedClasses(Options options) {
+        List<String> includes = new ArrayList<>(options.getIncludes());
+        if (includes.isEmpty()) {
+            includes.add(".*");
+        }
+        return BenchmarkList.defaultList()
+          .find(OutputFormatFactory.createFormatInstance(System.out, VerboseMode.SILENT), includes, options.getExcludes())
+          .stream()
+          .map(BenchmarkListEntry::getUserClassQName)
+          .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,8 @@
+package cn.tuyucheng.taketoday.concurrent.benchmark.counter;
+
+public interface BenchmarkCounter {
+
+    void increment();
+
+    int get();
+}
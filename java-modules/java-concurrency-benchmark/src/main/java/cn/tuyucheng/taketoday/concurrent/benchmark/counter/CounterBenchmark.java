@@ -0,0 +1,52 @@
+package cn.tuyucheng.taketoday.concurrent.benchmark.counter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixes reads and writes against one shared counter. Throughput gives ops/s, SampleTime gives the per-op percentiles
+ * (p99 included). The thread count is set by {@code -t} or by
+ * {@link cn.tuyucheng.taketoday.concurrent.benchmark.BenchmarkRunner}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CounterBenchmark {
+
+    @Param
+    private CounterType counterType;
+
+    @Param({"0", "50", "90", "99"})
+    private int readPercent;
+
+    private BenchmarkCounter counter;
+
+    @Setup
+    public void setup() {
+        counter = counterType.create();
+    }
+
+    @Benchmark
+    public int readWriteMix() {
+        if (ThreadLocalRandom.current().nextInt(100) < readPercent) {
+            return counter.get();
+        }
+        counter.increment();
+        return 0;
+    }
+}
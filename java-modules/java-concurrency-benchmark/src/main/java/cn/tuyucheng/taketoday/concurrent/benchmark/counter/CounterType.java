@@ -0,0 +1,98 @@
+package cn.tuyucheng.taketoday.concurrent.benchmark.counter;
+
+import cn.tuyucheng.taketoday.commonissues.SynchronizedCounter;
+import cn.tuyucheng.taketoday.commonissues.SynchronizedVolatileCounter;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.locks.LockStrategies;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.locks.LockStrategy;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.AtomicCounter;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.BufferedCounter;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.Counter;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.FlatCombiningCounter;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.ObjectLockCounter;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.ReentrantLockCounter;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.ReentrantReadWriteLockCounter;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.StampedLockCounter;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.StripedCounter;
+
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+public enum CounterType {
+    COUNTER(() -> {
+        Counter counter = new Counter();
+        return adapt(counter::incrementCounter, counter::getCounter);
+    }),
+    ATOMIC(() -> {
+        AtomicCounter counter = new AtomicCounter();
+        return adapt(counter::incrementCounter, counter::getCounter);
+    }),
+    OBJECT_LOCK(() -> {
+        ObjectLockCounter counter = new ObjectLockCounter();
+        return adapt(counter::incrementCounter, counter::getCounter);
+    }),
+    FAIR_REENTRANT_LOCK(() -> {
+        ReentrantLockCounter counter = new ReentrantLockCounter();
+        return adapt(counter::incrementCounter, counter::getCounter);
+    }),
+    UNFAIR_REENTRANT_LOCK(() -> lockCounter(LockStrategies.unfair())),
+    TTAS_SPIN_LOCK(() -> lockCounter(LockStrategies.ttasSpin())),
+    SPIN_THEN_PARK_LOCK(() -> lockCounter(LockStrategies.spinThenPark())),
+    MCS_LOCK(() -> lockCounter(LockStrategies.mcs())),
+    FLAT_COMBINING(() -> {
+        FlatCombiningCounter counter = new FlatCombiningCounter();
+        return adapt(counter::incrementCounter, counter::getCounter);
+    }),
+    READ_WRITE_LOCK(() -> {
+        ReentrantReadWriteLockCounter counter = new ReentrantReadWriteLockCounter();
+        return adapt(counter::incrementCounter, counter::getCounter);
+    }),
+    STAMPED_LOCK(() -> {
+        StampedLockCounter counter = new StampedLockCounter();
+        return adapt(counter::incrementCounter, counter::getCounter);
+    }),
+    STRIPED(() -> {
+        StripedCounter counter = new StripedCounter();
+        return adapt(counter::incrementCounter, counter::getCounter);
+    }),
+    BUFFERED(() -> {
+        BufferedCounter counter = new BufferedCounter();
+        return adapt(counter::incrementCounter, counter::getCounter);
+    }),
+    SYNCHRONIZED(() -> {
+        SynchronizedCounter counter = new SynchronizedCounter();
+        return adapt(counter::increment, counter::getValue);
+    }),
+    SYNCHRONIZED_VOLATILE(() -> {
+        SynchronizedVolatileCounter counter = new SynchronizedVolatileCounter();
+        return adapt(counter::increment, counter::getValue);
+    });
+
+    private final Supplier<BenchmarkCounter> factory;
+
+    CounterType(Supplier<BenchmarkCounter> factory) {
+        this.factory = factory;
+    }
+
+    public BenchmarkCounter create() {
+        return factory.get();
+    }
+
+    private static BenchmarkCounter lockCounter(LockStrategy lockStrategy) {
+        ReentrantLockCounter counter = new ReentrantLockCounter(lockStrategy);
+        return adapt(counter::incrementCounter, counter::getCounter);
+    }
+
+    private static BenchmarkCounter adapt(Runnable increment, IntSupplier get) {
+        return new BenchmarkCounter() {
+            @Override
+            public void increment() {
+                increment.run();
+            }
+
+            @Override
+            public int get() {
+                return get.getAsInt();
+            }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package cn.tuyucheng.taketoday.concurrent.benchmark.future;
+
+import cn.tuyucheng.taketoday.concurrent.future.SquareSumCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sum of squares as a plain loop and as an adaptive {@code RangeReducer}, which replaces the one-task-per-number fork
+ * chain of FactorialSquareCalculator. The chain itself is not measured: it nests one join per number and already
+ * overflows the stack at n = 1000.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SquareSumBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Pool {
+        ForkJoinPool pool;
+        SquareSumCalculator calculator;
+
+        @Setup
+        public void setup() {
+            pool = new ForkJoinPool();
+            calculator = new SquareSumCalculator(pool);
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Range {
+        @Param({"10", "100", "100000", "3000000"})
+        int n;
+    }
+
+    @Benchmark
+    public long loop(Range range) {
+        long sum = 0;
+        for (long i = 1; i <= range.n; i++) {
+            sum += i * i;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long rangeReducer(Pool pool, Range range) {
+        return pool.calculator.sumOfSquares(range.n);
+    }
+}
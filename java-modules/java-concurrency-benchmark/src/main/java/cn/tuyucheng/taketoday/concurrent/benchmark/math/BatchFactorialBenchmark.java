@@ -0,0 +1,81 @@
+package cn.tuyucheng.taketoday.concurrent.benchmark.math;
+
+import cn.tuyucheng.taketoday.concurrent.callable.BatchFactorialService;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.mathutils.MathUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * A batch of {@code batchSize} random numbers up to {@code max}: the batch service against computing only the largest
+ * factorial, and against computing every number on its own as per-number tasks do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BatchFactorialBenchmark {
+
+    @Param({"10000"})
+    private int batchSize;
+
+    @Param({"5000"})
+    private int max;
+
+    private List<Integer> numbers;
+    private ExecutorService executor;
+    private BatchFactorialService service;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        numbers = random.ints(batchSize - 1L, 0, max).boxed().collect(Collectors.toList());
+        numbers.add(max);
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        service = new BatchFactorialService(executor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public BigInteger largestOnly() {
+        return MathUtils.product(2, max);
+    }
+
+    @Benchmark
+    public Map<Integer, BigInteger> batch() throws InterruptedException, ExecutionException {
+        return service.factorials(numbers);
+    }
+
+    @Benchmark
+    public void perNumber(Blackhole blackhole) {
+        for (int number : numbers) {
+            blackhole.consume(MathUtils.product(2, number));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package cn.tuyucheng.taketoday.concurrent.benchmark.math;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.mathutils.MathUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the one-factor-at-a-time loop with the sequential product tree and its ForkJoin version. Each call is timed
+ * on its own because the loop needs minutes at n = 1,000,000; drop that size with {@code -p number=1000,10000,100000}
+ * for a quick run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Threads(1)
+@Fork(1)
+public class FactorialBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int number;
+
+    @Benchmark
+    public BigInteger loop() {
+        return MathUtils.factorial(number);
+    }
+
+    @Benchmark
+    public BigInteger productTree() {
+        return MathUtils.product(2, number);
+    }
+
+    @Benchmark
+    public BigInteger parallelProductTree() {
+        return MathUtils.parallelFactorial(number);
+    }
+}
@@ -0,0 +1,59 @@
+package cn.tuyucheng.taketoday.concurrent.benchmark.math;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.mathutils.FactorialCheckpoints;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.mathutils.MathUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests random n in [base, base + spread), the access pattern the checkpoint table is meant for. The spread is far
+ * larger than the number of checkpoints the budget holds, so almost every request extends the closest checkpoint below
+ * n and evicts another one instead of returning an exact hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactorialCheckpointsBenchmark {
+
+    @Param({"10000", "50000"})
+    private int base;
+
+    @Param({"10000"})
+    private int spread;
+
+    @Param({"1024"})
+    private int budgetKilobytes;
+
+    private FactorialCheckpoints checkpoints;
+
+    @Setup
+    public void setup() {
+        checkpoints = new FactorialCheckpoints(budgetKilobytes * 1024L);
+    }
+
+    @Benchmark
+    public BigInteger fromScratch() {
+        return MathUtils.product(2, base + ThreadLocalRandom.current().nextInt(spread));
+    }
+
+    @Benchmark
+    public BigInteger fromCheckpoint() {
+        return checkpoints.factorial(base + ThreadLocalRandom.current().nextInt(spread));
+    }
+}
@@ -0,0 +1,63 @@
+package cn.tuyucheng.taketoday.concurrent.benchmark.queue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed pool like {@code Executors.newFixedThreadPool} running a burst of empty tasks, with each blocking queue as
+ * its work queue. The score is the time until the whole burst has run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutorQueueBenchmark {
+
+    @Param({"LINKED_BLOCKING", "ARRAY_BLOCKING", "RING_BLOCKING"})
+    private QueueType type;
+
+    @Param({"4"})
+    private int threads;
+
+    @Param({"10000"})
+    private int tasks;
+
+    private ThreadPoolExecutor executor;
+
+    @Setup
+    public void setup() {
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, type.createBlocking(1024),
+          new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.prestartAllCoreThreads();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public void burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(done::countDown);
+        }
+        done.await();
+    }
+}
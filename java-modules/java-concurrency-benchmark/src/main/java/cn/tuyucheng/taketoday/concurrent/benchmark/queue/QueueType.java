@@ -0,0 +1,42 @@
+package cn.tuyucheng.taketoday.concurrent.benchmark.queue;
+
+import cn.tuyucheng.taketoday.concurrent.queue.MpmcRingQueue;
+import cn.tuyucheng.taketoday.concurrent.queue.MpscRingQueue;
+import cn.tuyucheng.taketoday.concurrent.queue.RingBlockingQueue;
+import cn.tuyucheng.taketoday.concurrent.queue.SpscRingQueue;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.IntFunction;
+
+public enum QueueType {
+    LINKED_BLOCKING(LinkedBlockingQueue::new, true),
+    ARRAY_BLOCKING(ArrayBlockingQueue::new, true),
+    SPSC_RING(SpscRingQueue::new, false),
+    MPSC_RING(MpscRingQueue::new, false),
+    MPMC_RING(MpmcRingQueue::new, false),
+    RING_BLOCKING(capacity -> new RingBlockingQueue<>(new MpmcRingQueue<>(capacity)), true);
+
+    private final IntFunction<Queue<Object>> factory;
+    private final boolean blocking;
+
+    QueueType(IntFunction<Queue<Object>> factory, boolean blocking) {
+        this.factory = factory;
+        this.blocking = blocking;
+    }
+
+    public Queue<Object> create(int capacity) {
+        return factory.apply(capacity);
+    }
+
+    public BlockingQueue<Runnable> createBlocking(int capacity) {
+        if (!blocking) {
+            throw new IllegalArgumentException(this + " is not a BlockingQueue");
+        }
+        @SuppressWarnings("unchecked")
+        BlockingQueue<Runnable> queue = (BlockingQueue<Runnable>) (Queue<?>) create(capacity);
+        return queue;
+    }
+}
@@ -0,0 +1,75 @@
+package cn.tuyucheng.taketoday.concurrent.benchmark.table;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.AtomicCounter;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.OffHeapCounterTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Increments randomly chosen counters in a table of {@code size} entries. Run {@link CounterTableFootprint} for the
+ * memory side of the comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CounterTableBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int size;
+
+    private AtomicCounter[] atomicCounters;
+    private OffHeapCounterTable directTable;
+    private OffHeapCounterTable mappedTable;
+    private Path mappedFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        atomicCounters = new AtomicCounter[size];
+        for (int i = 0; i < size; i++) {
+            atomicCounters[i] = new AtomicCounter();
+        }
+        directTable = OffHeapCounterTable.allocateDirect(size);
+        mappedFile = Files.createTempFile("counter-table", ".bin");
+        mappedTable = OffHeapCounterTable.mapFile(mappedFile, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(mappedFile);
+    }
+
+    @Benchmark
+    public void atomicCounterArray() {
+        atomicCounters[ThreadLocalRandom.current().nextInt(size)].incrementCounter();
+    }
+
+    @Benchmark
+    public long directTable() {
+        return directTable.getAndAdd(ThreadLocalRandom.current().nextInt(size), 1);
+    }
+
+    @Benchmark
+    public long mappedTable() {
+        return mappedTable.getAndAdd(ThreadLocalRandom.current().nextInt(size), 1);
+    }
+}
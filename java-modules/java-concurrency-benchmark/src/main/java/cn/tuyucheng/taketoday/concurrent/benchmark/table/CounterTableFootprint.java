@@ -0,0 +1,45 @@
+package cn.tuyucheng.taketoday.concurrent.benchmark.table;
+
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.AtomicCounter;
+import cn.tuyucheng.taketoday.concurrent.threadsafety.services.OffHeapCounterTable;
+
+import java.lang.ref.Reference;
+
+/**
+ * Prints the heap and off-heap bytes per counter of an {@code AtomicCounter[]} versus an {@link OffHeapCounterTable}.
+ * Heap usage is measured around a forced GC, so run it with a fixed heap, e.g. {@code -Xms2g -Xmx2g}.
+ */
+public class CounterTableFootprint {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long before = usedHeap();
+        AtomicCounter[] atomicCounters = new AtomicCounter[size];
+        for (int i = 0; i < size; i++) {
+            atomicCounters[i] = new AtomicCounter();
+        }
+        long atomicBytes = usedHeap() - before;
+
+        before = usedHeap();
+        OffHeapCounterTable table = OffHeapCounterTable.allocateDirect(size);
+        long tableHeapBytes = usedHeap() - before;
+        long tableOffHeapBytes = (long) table.capacity() * Long.BYTES;
+
+        System.out.printf("AtomicCounter[%d]: %d heap bytes, %.1f bytes per counter%n",
+          size, atomicBytes, (double) atomicBytes / size);
+        System.out.printf("OffHeapCounterTable(%d): %d heap bytes + %d off-heap bytes, %.1f bytes per counter%n",
+          size, tableHeapBytes, tableOffHeapBytes, (double) (tableHeapBytes + tableOffHeapBytes) / size);
+
+        Reference.reachabilityFence(atomicCounters);
+        Reference.reachabilityFence(table);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}